@@ -0,0 +1,87 @@
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * TaskGenerator.java
+ * Reproducible synthetic tasks for benchmarks and load testing.
+ *
+ * The same count and seed always give the same tasks. Roughly a third are
+ * completed, half have a due date within a month either side of the base
+ * date, tags follow a skewed mix and display orders are spaced like
+ * TaskOrdering leaves them.
+ *
+ * Run directly to write a large tasks.txt for trying the app:
+ *   java -cp target/classes:bench TaskGenerator 100000 /tmp/tasks
+ */
+public class TaskGenerator {
+    private static final LocalDateTime BASE_DATE = LocalDateTime.of(2025, 1, 1, 9, 0);
+    
+    private static final String[] VERBS = {
+        "Finish", "Review", "Write", "Read", "Submit", "Prepare", "Call", "Buy",
+        "Fix", "Plan", "Study", "Email", "Book", "Clean", "Update", "Practice"
+    };
+    private static final String[] SUBJECTS = {
+        "chapter 4 notes", "lab report", "history essay", "project proposal",
+        "groceries", "dentist appointment", "physics problem set", "slides",
+        "budget spreadsheet", "gym schedule", "reading list", "thesis draft",
+        "calculus homework", "team meeting agenda", "flight tickets", "resume"
+    };
+    private static final String[] DETAILS = {
+        "", "", "", " before Friday", " with Sam", " for the final exam",
+        " (urgent)", " again", " and send feedback", " at the library"
+    };
+    
+    // Weighted towards None and School, like a real student's list
+    private static final String[] TAG_MIX = {
+        Task.TAG_NONE, Task.TAG_NONE, Task.TAG_NONE, Task.TAG_SCHOOL, Task.TAG_SCHOOL,
+        Task.TAG_PERSONAL, Task.TAG_WORK, Task.TAG_URGENT, Task.TAG_HEALTH,
+        Task.TAG_SHOPPING, Task.TAG_OTHER
+    };
+    
+    /**
+     * Generates tasks
+     * @param count Number of tasks
+     * @param seed Random seed; the same seed gives the same tasks
+     */
+    public static List<Task> generate(int count, long seed) {
+        Random random = new Random(seed);
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String id = new UUID(random.nextLong(), random.nextLong()).toString();
+            String description = VERBS[random.nextInt(VERBS.length)] + " "
+                + SUBJECTS[random.nextInt(SUBJECTS.length)]
+                + DETAILS[random.nextInt(DETAILS.length)];
+            LocalDateTime createdAt = BASE_DATE.minusMinutes(random.nextInt(60 * 24 * 90));
+            boolean completed = random.nextInt(3) == 0;
+            LocalDateTime completedAt = completed ? createdAt.plusMinutes(random.nextInt(60 * 24 * 14)) : null;
+            String tag = TAG_MIX[random.nextInt(TAG_MIX.length)];
+            LocalDateTime dueDate = random.nextBoolean()
+                ? BASE_DATE.plusMinutes(random.nextInt(60 * 24 * 60) - 60 * 24 * 30) : null;
+            int displayOrder = (i + 1) * TaskOrdering.ORDER_GAP;
+            tasks.add(new Task(id, description, createdAt, completed, completedAt, tag, dueDate, displayOrder));
+        }
+        return tasks;
+    }
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: java TaskGenerator <count> [folder] [seed]");
+            System.exit(1);
+        }
+        int count = Integer.parseInt(args[0]);
+        File folder = new File(args.length > 1 ? args[1] : ".");
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+        
+        if (!folder.isDirectory() && !folder.mkdirs()) {
+            throw new IOException("Could not create " + folder);
+        }
+        FileHelper.setDataDirectory(folder);
+        FileHelper.saveTasks(generate(count, seed));
+        System.out.println("Wrote " + count + " tasks to " + new File(folder, "tasks.txt"));
+    }
+}
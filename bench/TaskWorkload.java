@@ -0,0 +1,96 @@
+import java.io.File;
+import java.io.IOException;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * TaskWorkload.java
+ * Default-package side of benchmarks.Workload; see there for why it exists.
+ */
+public class TaskWorkload implements benchmarks.Workload {
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    
+    @Override
+    public List<Object> generate(int count, long seed) {
+        return new ArrayList<>(TaskGenerator.generate(count, seed));
+    }
+    
+    @Override
+    public String toFileString(Object task) {
+        return ((Task) task).toFileString();
+    }
+    
+    @Override
+    public String toFileString(Object task, String format) {
+        Task t = (Task) task;
+        switch (format) {
+            case "current":
+                return t.toFileString();
+            case "old":
+                // id|description|createdAt|completed|completedAt
+                return t.getId() + "|" + t.getDescription() + "|" + t.getCreatedAt().format(FORMATTER) + "|"
+                    + t.isCompleted() + "|" + (t.getCompletedAt() != null ? t.getCompletedAt().format(FORMATTER) : "null");
+            case "veryOld":
+                // description|timestamp
+                return t.getDescription() + "|" + t.getCreatedAt().format(FORMATTER);
+            case "ancient":
+                // description only
+                return t.getDescription();
+            default:
+                throw new IllegalArgumentException("Unknown format: " + format);
+        }
+    }
+    
+    @Override
+    public Object fromFileString(String line) {
+        return Task.fromFileString(line);
+    }
+    
+    @Override
+    public void useDataDirectory(File directory) {
+        FileHelper.setDataDirectory(directory);
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public void saveTasks(List<Object> tasks) throws IOException {
+        FileHelper.saveTasks((List<Task>) (List<?>) tasks);
+    }
+    
+    @Override
+    public List<Object> loadTasks() throws IOException {
+        return new ArrayList<>(FileHelper.loadTasks());
+    }
+    
+    @Override
+    public Object buildSearchIndex(List<Object> tasks) {
+        SearchIndex index = new SearchIndex();
+        for (Object task : tasks) {
+            index.add((Task) task);
+        }
+        return index;
+    }
+    
+    @Override
+    public int filter(Object searchIndex, List<Object> tasks, String tag, String query) {
+        SearchIndex index = (SearchIndex) searchIndex;
+        // Forget the previous query so every call is a fresh search, not a refinement
+        index.search("");
+        Set<Task> matches = index.search(query);
+        
+        // Same integer tag comparison as TaskEngine.setFilter
+        Tag filterTag = Tag.find(tag);
+        int tagId = filterTag != null ? filterTag.getId() : -1;
+        
+        int count = 0;
+        for (Object o : tasks) {
+            Task task = (Task) o;
+            if ((tag == null || task.getTagId() == tagId) && (matches == null || matches.contains(task))) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,57 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * FilterBenchmark.java
+ * The task list's search and tag filtering, as Main.filterTasks applies it.
+ *
+ * Every call is a fresh search (not a refinement of the previous query)
+ * followed by the tag and search predicates over the whole list.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FilterBenchmark {
+    @Param({"1000", "100000"})
+    int count;
+    
+    // "" means no search text; short queries can't use the trigram index
+    @Param({"", "ma", "lab report"})
+    String query;
+    
+    // "" means all tags
+    @Param({"", "School"})
+    String tag;
+    
+    Workload workload;
+    List<Object> tasks;
+    Object searchIndex;
+    
+    @Setup
+    public void setUp() {
+        workload = Workload.create();
+        tasks = workload.generate(count, 1);
+        searchIndex = workload.buildSearchIndex(tasks);
+    }
+    
+    @Benchmark
+    public int filter() {
+        return workload.filter(searchIndex, tasks, tag.isEmpty() ? null : tag, query);
+    }
+}
@@ -0,0 +1,72 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * PersistenceBenchmark.java
+ * Full snapshot save and load through FileHelper.
+ *
+ * Runs in a scratch folder, never the working directory, with FileHelper's
+ * default sync policy and backups, so a save costs what it costs in the app.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PersistenceBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    int count;
+    
+    Workload workload;
+    List<Object> tasks;
+    File folder;
+    
+    @Setup
+    public void setUp() throws IOException {
+        workload = Workload.create();
+        folder = Files.createTempDirectory("task-bench").toFile();
+        workload.useDataDirectory(folder);
+        tasks = workload.generate(count, 1);
+        workload.saveTasks(tasks);
+    }
+    
+    @TearDown
+    public void tearDown() {
+        File[] files = folder.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        folder.delete();
+    }
+    
+    @Benchmark
+    public List<Object> saveTasks() throws IOException {
+        workload.saveTasks(tasks);
+        return tasks;
+    }
+    
+    @Benchmark
+    public List<Object> loadTasks() throws IOException {
+        return workload.loadTasks();
+    }
+}
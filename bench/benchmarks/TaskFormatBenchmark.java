@@ -0,0 +1,82 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * TaskFormatBenchmark.java
+ * Cost of writing and parsing one snapshot line.
+ *
+ * Each call takes the next of SAMPLE_SIZE generated tasks, so the numbers
+ * reflect a mix of descriptions, tags and null dates rather than one line.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskFormatBenchmark {
+    private static final int SAMPLE_SIZE = 1024; // power of two, see next()
+    
+    @State(Scope.Thread)
+    public static class Tasks {
+        Workload workload;
+        Object[] tasks;
+        int next;
+        
+        @Setup
+        public void setUp() {
+            workload = Workload.create();
+            tasks = workload.generate(SAMPLE_SIZE, 1).toArray();
+        }
+        
+        Object next() {
+            return tasks[next++ & (SAMPLE_SIZE - 1)];
+        }
+    }
+    
+    @State(Scope.Thread)
+    public static class Lines {
+        @Param({"current", "old", "veryOld", "ancient"})
+        String format;
+        
+        Workload workload;
+        String[] lines;
+        int next;
+        
+        @Setup
+        public void setUp() {
+            workload = Workload.create();
+            List<Object> tasks = workload.generate(SAMPLE_SIZE, 1);
+            lines = new String[SAMPLE_SIZE];
+            for (int i = 0; i < SAMPLE_SIZE; i++) {
+                lines[i] = workload.toFileString(tasks.get(i), format);
+            }
+        }
+        
+        String next() {
+            return lines[next++ & (SAMPLE_SIZE - 1)];
+        }
+    }
+    
+    @Benchmark
+    public String toFileString(Tasks state) {
+        return state.workload.toFileString(state.next());
+    }
+    
+    @Benchmark
+    public Object fromFileString(Lines state) {
+        return state.workload.fromFileString(state.next());
+    }
+}
@@ -0,0 +1,65 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Workload.java
+ * The app code the benchmarks exercise.
+ *
+ * JMH only accepts benchmarks in a named package, and a named package cannot
+ * refer to the app's classes in the default package. This interface uses JDK
+ * types only and is implemented by TaskWorkload in the default package, so
+ * each benchmark makes one monomorphic interface call that the JIT inlines.
+ * Tasks are passed around as Object.
+ */
+public interface Workload {
+    /**
+     * Loads the default-package implementation
+     */
+    static Workload create() {
+        try {
+            return (Workload) Class.forName("TaskWorkload").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("TaskWorkload is not on the classpath", e);
+        }
+    }
+    
+    /**
+     * Generates reproducible synthetic tasks (see TaskGenerator)
+     */
+    List<Object> generate(int count, long seed);
+    
+    String toFileString(Object task);
+    
+    /**
+     * Writes a task as a snapshot line in one of the layouts Task.fromFileString
+     * still understands: "current", "old", "veryOld" or "ancient"
+     */
+    String toFileString(Object task, String format);
+    
+    Object fromFileString(String line);
+    
+    /**
+     * Points FileHelper at a scratch folder instead of the working directory
+     */
+    void useDataDirectory(File directory);
+    
+    void saveTasks(List<Object> tasks) throws IOException;
+    
+    List<Object> loadTasks() throws IOException;
+    
+    /**
+     * Builds the search index the task list view filters with
+     */
+    Object buildSearchIndex(List<Object> tasks);
+    
+    /**
+     * Runs a fresh search plus the tag filter, the way Main.filterTasks does
+     * @param tag Tag to keep, or null for all tags
+     * @param query Search text, or "" for none
+     * @return Number of tasks that pass both filters
+     */
+    int filter(Object searchIndex, List<Object> tasks, String tag, String query);
+}
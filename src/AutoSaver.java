@@ -0,0 +1,180 @@
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AutoSaver.java
+ * Debounced autosave of changed tasks to the journal.
+ *
+ * The owner reports added and removed tasks and forwards TaskListener events;
+ * the autosaver remembers which tasks changed. Once changes stop for
+ * QUIET_PERIOD_MS (or MAX_DELAY_MS after the first unsaved change, whichever
+ * comes first) it writes one journal record per changed task in a single
+ * batch, so a burst of edits or drags becomes one write.
+ *
+ * All methods except the timer itself run on the owner thread (the FX thread
+ * in the app); records are built there and written by the PersistenceService.
+ */
+public class AutoSaver implements TaskListener {
+    public static final long QUIET_PERIOD_MS = 2000;
+    public static final long MAX_DELAY_MS = 10000;
+    
+    private final PersistenceService persistence;
+    private final Executor ownerExecutor;
+    private final Runnable onCompactionDue;
+    private final ScheduledExecutorService timer;
+    
+    // Pending changes since the last flush
+    private final Set<Task> added = new LinkedHashSet<>();
+    private final Set<Task> updated = new LinkedHashSet<>();
+    private final Set<String> deletedIds = new LinkedHashSet<>();
+    
+    private boolean hasPendingChanges = false;
+    private long firstChangeNanos = 0;
+    private long lastChangeNanos = 0;
+    private boolean timerPending = false;
+    
+    /**
+     * @param persistence Where the journal batches are written
+     * @param ownerExecutor Runs flushes on the thread that owns the tasks, e.g. Platform::runLater
+     * @param onCompactionDue Run on the owner thread once the journal should be folded into a snapshot
+     */
+    public AutoSaver(PersistenceService persistence, Executor ownerExecutor, Runnable onCompactionDue) {
+        this.persistence = persistence;
+        this.ownerExecutor = ownerExecutor;
+        this.onCompactionDue = onCompactionDue;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Records a task added to the collection
+     */
+    public void taskAdded(Task task) {
+        // Removed and put back (e.g. a drag) is just an update
+        if (deletedIds.remove(task.getId())) {
+            updated.add(task);
+        } else {
+            added.add(task);
+        }
+        changed();
+    }
+    
+    /**
+     * Records a task removed from the collection
+     */
+    public void taskRemoved(Task task) {
+        updated.remove(task);
+        // Added and removed before it was ever written: nothing to journal
+        if (!added.remove(task)) {
+            deletedIds.add(task.getId());
+        }
+        changed();
+    }
+    
+    @Override
+    public void taskChanged(Task task, String property, Object oldValue, Object newValue) {
+        if (!added.contains(task)) {
+            updated.add(task);
+        }
+        changed();
+    }
+    
+    /**
+     * Forgets pending changes because the whole list was just written or replaced
+     */
+    public void discardPending() {
+        added.clear();
+        updated.clear();
+        deletedIds.clear();
+        hasPendingChanges = false;
+    }
+    
+    /**
+     * Writes all pending changes now
+     */
+    public void flush() {
+        if (added.isEmpty() && updated.isEmpty() && deletedIds.isEmpty()) {
+            return;
+        }
+        
+        // Build the records here, on the owner thread, so the writer sees a consistent state
+        List<String> records = new ArrayList<>(added.size() + updated.size() + deletedIds.size());
+        for (Task task : added) {
+            records.add(FileHelper.addRecord(task));
+        }
+        for (Task task : updated) {
+            records.add(FileHelper.updateRecord(task));
+        }
+        for (String id : deletedIds) {
+            records.add(FileHelper.deleteRecord(id));
+        }
+        
+        added.clear();
+        updated.clear();
+        deletedIds.clear();
+        hasPendingChanges = false;
+        
+        persistence.appendRecords(records, onCompactionDue);
+    }
+    
+    /**
+     * Flushes pending changes and stops the timer
+     */
+    public void shutdown() {
+        timer.shutdownNow();
+        flush();
+    }
+    
+    /**
+     * Notes a change and makes sure a flush is scheduled
+     */
+    private void changed() {
+        long now = System.nanoTime();
+        if (!hasPendingChanges) {
+            hasPendingChanges = true;
+            firstChangeNanos = now;
+        }
+        lastChangeNanos = now;
+        
+        // One timer at a time; when it fires it re-arms itself if changes kept coming
+        if (!timerPending) {
+            schedule(QUIET_PERIOD_MS);
+        }
+    }
+    
+    private void schedule(long delayMillis) {
+        timerPending = true;
+        timer.schedule(() -> ownerExecutor.execute(this::onTimer), delayMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Flushes if the quiet period or the maximum delay has passed, otherwise waits again
+     */
+    private void onTimer() {
+        timerPending = false;
+        if (!hasPendingChanges) {
+            return;
+        }
+        
+        long now = System.nanoTime();
+        long quietDeadline = lastChangeNanos + TimeUnit.MILLISECONDS.toNanos(QUIET_PERIOD_MS);
+        long maxDeadline = firstChangeNanos + TimeUnit.MILLISECONDS.toNanos(MAX_DELAY_MS);
+        long deadline = Math.min(quietDeadline, maxDeadline);
+        
+        if (now >= deadline) {
+            flush();
+        } else {
+            // Rounded up, so the timer doesn't wake a moment early and wait again
+            schedule(TimeUnit.NANOSECONDS.toMillis(deadline - now) + 1);
+        }
+    }
+}
@@ -0,0 +1,299 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * BinaryTaskFormat.java
+ * Compact, versioned binary encoding of the task list.
+ *
+ * Layout (all numbers big-endian, as written by DataOutputStream):
+ *   header: magic (4 bytes) | version (1 byte) | task count (int)
+ *   task:   flags (1 byte) | id | createdAt | [completedAt] | tag | [dueDate] | description | displayOrder | modifiedAt
+ *
+ * The id is two longs when it is a UUID, otherwise a length-prefixed string.
+ * Timestamps are epoch seconds of the local date-time (no zone conversion).
+ * The tag is a byte index into Task.ALL_TAGS, or CUSTOM_TAG plus a string.
+ * Strings are an int byte length followed by UTF-8 bytes.
+ *
+ * Version 1 files have no modifiedAt; it is derived from the other dates on read.
+ *
+ * Reading checks the task count and every string length against the bytes
+ * left, so a corrupt file fails with an IOException instead of allocating
+ * whatever its numbers claim.
+ */
+public class BinaryTaskFormat {
+    // Starts with NUL so it can never be mistaken for a text snapshot
+    private static final byte[] MAGIC = {0, 'S', 'T', 'M'};
+    private static final int VERSION = 2;
+    
+    // Flag bits
+    private static final int FLAG_COMPLETED = 1;
+    private static final int FLAG_HAS_COMPLETED_AT = 1 << 1;
+    private static final int FLAG_HAS_DUE_DATE = 1 << 2;
+    private static final int FLAG_UUID_ID = 1 << 3;
+    
+    // Header size, and the smallest possible task: flags, empty id and
+    // description, createdAt, tag, displayOrder (version 1, no modifiedAt)
+    private static final int HEADER_BYTES = MAGIC.length + 1 + 4;
+    private static final int MIN_TASK_BYTES = 1 + 4 + 8 + 1 + 4 + 4;
+    
+    static final int CUSTOM_TAG = 0xFF;
+    
+    /**
+     * Checks whether a file starts with the binary magic header
+     * @param file The file to inspect
+     * @return true if the file is in binary format
+     * @throws IOException if file operations fail
+     */
+    public static boolean isBinary(File file) throws IOException {
+        if (!file.exists() || file.length() < MAGIC.length) {
+            return false;
+        }
+        
+        InputStream in = null;
+        try {
+            in = new FileInputStream(file);
+            byte[] header = new byte[MAGIC.length];
+            int read = in.readNBytes(header, 0, header.length);
+            if (read < MAGIC.length) {
+                return false;
+            }
+            for (int i = 0; i < MAGIC.length; i++) {
+                if (header[i] != MAGIC[i]) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    System.err.println("Error closing stream: " + e.getMessage());
+                }
+            }
+        }
+    }
+    
+    /**
+     * Writes tasks in binary format
+     * @param tasks List of tasks to write
+     * @param output Destination stream (not closed)
+     * @throws IOException if writing fails
+     */
+    public static void write(List<Task> tasks, OutputStream output) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output, 64 * 1024));
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        out.writeInt(tasks.size());
+        
+        for (Task task : tasks) {
+            UUID uuid = parseUuid(task.getId());
+            
+            int flags = 0;
+            if (task.isCompleted()) flags |= FLAG_COMPLETED;
+            if (task.getCompletedAt() != null) flags |= FLAG_HAS_COMPLETED_AT;
+            if (task.getDueDate() != null) flags |= FLAG_HAS_DUE_DATE;
+            if (uuid != null) flags |= FLAG_UUID_ID;
+            out.writeByte(flags);
+            
+            if (uuid != null) {
+                out.writeLong(uuid.getMostSignificantBits());
+                out.writeLong(uuid.getLeastSignificantBits());
+            } else {
+                writeString(out, task.getId());
+            }
+            
+            out.writeLong(toEpochSecond(task.getCreatedAt()));
+            if (task.getCompletedAt() != null) {
+                out.writeLong(toEpochSecond(task.getCompletedAt()));
+            }
+            
+            int tagIndex = tagIndex(task.getTag());
+            out.writeByte(tagIndex);
+            if (tagIndex == CUSTOM_TAG) {
+                writeString(out, task.getTag());
+            }
+            
+            if (task.getDueDate() != null) {
+                out.writeLong(toEpochSecond(task.getDueDate()));
+            }
+            
+            writeString(out, task.getDescription());
+            out.writeInt(task.getDisplayOrder());
+            out.writeLong(toEpochSecond(task.getModifiedAt()));
+        }
+        
+        out.flush();
+    }
+    
+    /**
+     * Reads tasks written by {@link #write}
+     * @param input Source stream (not closed)
+     * @param length Number of bytes in the stream, e.g. the file size
+     * @return List of tasks
+     * @throws IOException if the header is wrong, the version is unknown or the data is truncated or corrupt
+     */
+    public static List<Task> read(InputStream input, long length) throws IOException {
+        BoundedInput in = new BoundedInput(input, length);
+        
+        byte[] header = new byte[MAGIC.length];
+        in.readFully(header);
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (header[i] != MAGIC[i]) {
+                throw new IOException("Not a binary task file");
+            }
+        }
+        int version = in.readUnsignedByte();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported binary task file version: " + version);
+        }
+        
+        int count = in.readInt();
+        if (count < 0 || count > (length - HEADER_BYTES) / MIN_TASK_BYTES) {
+            throw new IOException("Task count " + count + " does not fit in " + length + " bytes");
+        }
+        List<Task> tasks = new ArrayList<>(count);
+        
+        for (int i = 0; i < count; i++) {
+            int flags = in.readUnsignedByte();
+            
+            String id;
+            if ((flags & FLAG_UUID_ID) != 0) {
+                id = new UUID(in.readLong(), in.readLong()).toString();
+            } else {
+                id = in.readString();
+            }
+            
+            LocalDateTime createdAt = fromEpochSecond(in.readLong());
+            LocalDateTime completedAt = (flags & FLAG_HAS_COMPLETED_AT) != 0 ? fromEpochSecond(in.readLong()) : null;
+            
+            int tagIndex = in.readUnsignedByte();
+            String tag;
+            if (tagIndex == CUSTOM_TAG) {
+                tag = in.readString();
+            } else if (tagIndex < Task.ALL_TAGS.length) {
+                tag = Task.ALL_TAGS[tagIndex];
+            } else {
+                throw new IOException("Unknown tag index " + tagIndex + " in task " + (i + 1));
+            }
+            
+            LocalDateTime dueDate = (flags & FLAG_HAS_DUE_DATE) != 0 ? fromEpochSecond(in.readLong()) : null;
+            String description = in.readString();
+            int displayOrder = in.readInt();
+            LocalDateTime modifiedAt = version >= 2 ? fromEpochSecond(in.readLong()) : null;
+            
+            tasks.add(new Task(id, description, createdAt, (flags & FLAG_COMPLETED) != 0,
+                               completedAt, tag, dueDate, displayOrder, modifiedAt));
+        }
+        
+        return tasks;
+    }
+    
+    /**
+     * Returns the tag's position in Task.ALL_TAGS, or CUSTOM_TAG
+     */
+    static int tagIndex(String tag) {
+        // Built-in tag ids are their ALL_TAGS positions
+        Tag interned = Tag.find(tag);
+        return interned != null && interned.isBuiltIn() ? interned.getId() : CUSTOM_TAG;
+    }
+    
+    /**
+     * Parses a canonical UUID string, or returns null for any other id
+     */
+    static UUID parseUuid(String id) {
+        if (id.length() != 36) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(id);
+            // fromString accepts non-canonical forms; only take ids that round-trip exactly
+            return uuid.toString().equals(id) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+    
+    private static LocalDateTime fromEpochSecond(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+    
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+    
+    /**
+     * A DataInputStream that knows how many bytes are left, so lengths read
+     * from the data can be checked before anything is allocated for them
+     */
+    private static class BoundedInput extends DataInputStream {
+        private final Counter counter;
+        
+        BoundedInput(InputStream input, long length) {
+            this(new Counter(new BufferedInputStream(input, 64 * 1024), length));
+        }
+        
+        private BoundedInput(Counter counter) {
+            super(counter);
+            this.counter = counter;
+        }
+        
+        String readString() throws IOException {
+            int length = readInt();
+            if (length < 0 || length > counter.remaining) {
+                throw new IOException("String length " + length + " exceeds the " + counter.remaining + " bytes left");
+            }
+            byte[] bytes = new byte[length];
+            readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+    
+    /**
+     * Counts down the bytes read (DataInputStream reads its source directly)
+     */
+    private static class Counter extends FilterInputStream {
+        long remaining;
+        
+        Counter(InputStream in, long length) {
+            super(in);
+            this.remaining = length;
+        }
+        
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+        
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            if (n > 0) {
+                remaining -= n;
+            }
+            return n;
+        }
+        
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(n);
+            remaining -= skipped;
+            return skipped;
+        }
+    }
+}
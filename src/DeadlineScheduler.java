@@ -0,0 +1,212 @@
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DeadlineScheduler.java
+ * Fires exactly when pending tasks become due soon or overdue.
+ *
+ * Every pending task with a due date has up to two deadlines in a sorted
+ * set: the moment it becomes due soon (DUE_SOON_HOURS before the due date)
+ * and the moment it becomes overdue. A single timer is armed for the
+ * earliest deadline only, so nothing runs while no deadline is near, and
+ * adding, editing, completing or removing a task costs O(log n).
+ *
+ * Only deadlines still in the future when a task is added are scheduled;
+ * tasks that are already overdue (e.g. just loaded) are the owner's job.
+ * The owner reports added and removed tasks and forwards TaskListener
+ * events; results are delivered on the callback executor.
+ */
+public class DeadlineScheduler implements TaskListener {
+    public static final long DUE_SOON_HOURS = 24;
+    
+    /**
+     * Receives the tasks whose deadlines were just reached
+     */
+    public interface DeadlineListener {
+        /**
+         * @param overdue Tasks that just went overdue
+         * @param dueSoon Tasks that just became due soon
+         */
+        void deadlinesReached(List<Task> overdue, List<Task> dueSoon);
+    }
+    
+    private static class Deadline implements Comparable<Deadline> {
+        final Task task;
+        final LocalDateTime time;
+        final boolean overdue;
+        final long sequence;
+        
+        Deadline(Task task, LocalDateTime time, boolean overdue, long sequence) {
+            this.task = task;
+            this.time = time;
+            this.overdue = overdue;
+            this.sequence = sequence;
+        }
+        
+        @Override
+        public int compareTo(Deadline other) {
+            int byTime = time.compareTo(other.time);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+    
+    private final DeadlineListener listener;
+    private final Executor callbackExecutor;
+    private final ScheduledExecutorService timer;
+    
+    private final TreeSet<Deadline> deadlines = new TreeSet<>();
+    private final Map<Task, List<Deadline>> deadlinesByTask = new HashMap<>();
+    private long nextSequence = 0;
+    
+    // The timer is armed for this deadline, or nothing is armed when null
+    private ScheduledFuture<?> armed;
+    private Deadline armedFor;
+    
+    /**
+     * @param listener Told about reached deadlines
+     * @param callbackExecutor Where the listener runs, e.g. Platform::runLater
+     */
+    public DeadlineScheduler(DeadlineListener listener, Executor callbackExecutor) {
+        this.listener = listener;
+        this.callbackExecutor = callbackExecutor;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-deadlines");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Schedules the deadlines of a task that joined the collection
+     */
+    public synchronized void taskAdded(Task task) {
+        schedule(task);
+        rearm();
+    }
+    
+    /**
+     * Drops the deadlines of a task that left the collection
+     */
+    public synchronized void taskRemoved(Task task) {
+        unschedule(task);
+        rearm();
+    }
+    
+    /**
+     * Reschedules a task whose due date or completion changed
+     */
+    @Override
+    public synchronized void taskChanged(Task task, String property, Object oldValue, Object newValue) {
+        if (!Task.PROP_DUE_DATE.equals(property) && !Task.PROP_COMPLETED.equals(property)) {
+            return;
+        }
+        unschedule(task);
+        schedule(task);
+        rearm();
+    }
+    
+    /**
+     * Drops every deadline
+     */
+    public synchronized void clear() {
+        deadlines.clear();
+        deadlinesByTask.clear();
+        rearm();
+    }
+    
+    /**
+     * Stops the timer; no more deadlines are reported
+     */
+    public synchronized void shutdown() {
+        timer.shutdownNow();
+        armed = null;
+        armedFor = null;
+    }
+    
+    private void schedule(Task task) {
+        LocalDateTime dueDate = task.getDueDate();
+        if (dueDate == null || task.isCompleted()) {
+            return;
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<Deadline> forTask = new ArrayList<>(2);
+        LocalDateTime dueSoonAt = dueDate.minusHours(DUE_SOON_HOURS);
+        if (dueSoonAt.isAfter(now)) {
+            forTask.add(new Deadline(task, dueSoonAt, false, nextSequence++));
+        }
+        if (dueDate.isAfter(now)) {
+            forTask.add(new Deadline(task, dueDate, true, nextSequence++));
+        }
+        if (!forTask.isEmpty()) {
+            deadlines.addAll(forTask);
+            deadlinesByTask.put(task, forTask);
+        }
+    }
+    
+    private void unschedule(Task task) {
+        List<Deadline> forTask = deadlinesByTask.remove(task);
+        if (forTask != null) {
+            deadlines.removeAll(forTask);
+        }
+    }
+    
+    /**
+     * Points the timer at the earliest deadline if that changed
+     */
+    private void rearm() {
+        if (timer.isShutdown()) {
+            return;
+        }
+        Deadline first = deadlines.isEmpty() ? null : deadlines.first();
+        if (first == armedFor) {
+            return;
+        }
+        if (armed != null) {
+            armed.cancel(false);
+            armed = null;
+        }
+        armedFor = first;
+        if (first != null) {
+            // Task.isOverdue needs "now" strictly after the due date, hence the extra millisecond
+            long delay = Math.max(0, Duration.between(LocalDateTime.now(), first.time).toMillis() + 1);
+            armed = timer.schedule(this::fire, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    /**
+     * Pops every reached deadline and reports them in one batch
+     */
+    private synchronized void fire() {
+        armed = null;
+        armedFor = null;
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<Task> overdue = new ArrayList<>();
+        List<Task> dueSoon = new ArrayList<>();
+        while (!deadlines.isEmpty() && deadlines.first().time.isBefore(now)) {
+            Deadline deadline = deadlines.pollFirst();
+            List<Deadline> forTask = deadlinesByTask.get(deadline.task);
+            forTask.remove(deadline);
+            if (forTask.isEmpty()) {
+                deadlinesByTask.remove(deadline.task);
+            }
+            (deadline.overdue ? overdue : dueSoon).add(deadline.task);
+        }
+        rearm();
+        
+        if (!overdue.isEmpty() || !dueSoon.isEmpty()) {
+            callbackExecutor.execute(() -> listener.deadlinesReached(overdue, dueSoon));
+        }
+    }
+}
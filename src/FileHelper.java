@@ -1,15 +1,133 @@
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.DoubleConsumer;
 
 /**
  * FileHelper.java
  * Handles all file operations for saving and loading tasks.
  * Uses BufferedReader and BufferedWriter as required.
  * Implements proper error handling to prevent crashes.
+ *
+ * The snapshot is either the pipe-delimited text format or the compact
+ * BinaryTaskFormat; the format is detected from the file header and kept
+ * on save, and convertToBinary/convertToText switch between them.
+ *
+ * Persistence is split into a snapshot (tasks.txt) and an append-only
+ * journal (tasks.journal). Small edits are appended to the journal as
+ * one-line records; saving a snapshot folds the journal back into it.
+ * Once the journal is long, isCompactionDue tells the caller to save a
+ * snapshot of the tasks it holds. Loading replays snapshot plus journal.
+ *
+ * Snapshots are never written over the live file: they go to a temp file
+ * that is forced to disk and then atomically renamed over tasks.txt, so a
+ * crash leaves either the old or the new snapshot. The previous snapshots
+ * are kept as tasks.txt.1 .. tasks.txt.N. SyncPolicy decides how often
+ * data is forced to disk.
  */
 public class FileHelper {
     private static final String FILE_NAME = "tasks.txt";
+    private static final String JOURNAL_FILE_NAME = "tasks.journal";
+    
+    // Folder holding the task files; null means the working directory
+    private static volatile File dataDirectory = null;
+    
+    // Journal record types: op|payload
+    private static final char OP_ADD = 'A';      // A|<task file string>
+    private static final char OP_UPDATE = 'U';   // U|<task file string>
+    private static final char OP_DELETE = 'D';   // D|<task id>
+    
+    // Ask for a fresh snapshot once the journal grows past this many records
+    private static final int COMPACTION_THRESHOLD = 1000;
+    private static int journalRecordCount = 0;
+    
+    // Snapshots at least this large are read in chunks and parsed in parallel
+    private static final long PARALLEL_LOAD_THRESHOLD = 4L * 1024 * 1024;
+    private static final int CHUNK_SIZE = 1024 * 1024;
+    
+    /**
+     * How often writes are forced to disk
+     */
+    public enum SyncPolicy {
+        /** Force every snapshot and every journal append */
+        ALWAYS,
+        /** Force every snapshot; force the journal at most once per JOURNAL_SYNC_INTERVAL_MS,
+         *  so a power loss can cost the last moments of autosaved edits */
+        BATCHED,
+        /** Never force; the OS decides (still atomic against a process crash) */
+        NONE
+    }
+    
+    private static final String TEMP_SUFFIX = ".tmp";
+    public static final long JOURNAL_SYNC_INTERVAL_MS = 1000;
+    
+    // Set once at startup from Settings, read on the persistence thread
+    private static volatile SyncPolicy syncPolicy = SyncPolicy.BATCHED;
+    private static volatile int backupCount = 2;
+    private static long lastJournalSyncMillis = 0;
+    // A BATCHED append was left unforced; syncJournal forces it
+    private static boolean journalSyncPending = false;
+    
+    /**
+     * Writes the content of a snapshot file
+     */
+    private interface SnapshotWriter {
+        void write(OutputStream out) throws IOException;
+    }
+    
+    /**
+     * Sets the folder the snapshot, journal and backups live in
+     * @param directory The folder, or null for the working directory
+     */
+    public static void setDataDirectory(File directory) {
+        dataDirectory = directory;
+    }
+    
+    private static File snapshotFile() {
+        return new File(dataDirectory, FILE_NAME);
+    }
+    
+    private static File journalFile() {
+        return new File(dataDirectory, JOURNAL_FILE_NAME);
+    }
+    
+    /**
+     * Sets how often writes are forced to disk
+     */
+    public static void setSyncPolicy(SyncPolicy policy) {
+        syncPolicy = policy;
+    }
+    
+    public static SyncPolicy getSyncPolicy() {
+        return syncPolicy;
+    }
+    
+    /**
+     * Sets how many previous snapshots are kept as tasks.txt.1 .. tasks.txt.N
+     * @param count Number of backups, 0 to keep none
+     */
+    public static void setBackupCount(int count) {
+        backupCount = Math.max(0, count);
+    }
+    
+    public static int getBackupCount() {
+        return backupCount;
+    }
     
     /**
      * Saves a list of tasks to the file
@@ -18,53 +136,229 @@ public class FileHelper {
      * @throws IOException if file operations fail
      */
     public static void saveTasks(List<Task> tasks) throws IOException {
-        BufferedWriter writer = null;
-        try {
-            writer = new BufferedWriter(new FileWriter(FILE_NAME));
-            
+        // Keep whichever format the snapshot is already in
+        if (BinaryTaskFormat.isBinary(snapshotFile())) {
+            writeBinarySnapshot(tasks);
+        } else {
+            writeSnapshot(tasks);
+        }
+        
+        // The snapshot now holds every change, so the journal can go
+        truncateJournal();
+    }
+    
+    /**
+     * Writes the full task list to the snapshot file
+     */
+    private static void writeSnapshot(List<Task> tasks) throws IOException {
+        writeAtomically(out -> {
+            // Not closed here: writeAtomically owns the channel underneath
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, Charset.defaultCharset()));
             for (Task task : tasks) {
                 writer.write(task.toFileString());
                 writer.newLine();
             }
-            
             writer.flush();
+        });
+    }
+    
+    /**
+     * Writes the full task list to the snapshot file in binary format
+     */
+    private static void writeBinarySnapshot(List<Task> tasks) throws IOException {
+        writeAtomically(out -> BinaryTaskFormat.write(tasks, out));
+    }
+    
+    /**
+     * Replaces the snapshot file without ever exposing a partly written one
+     * The content goes to a sibling temp file, which is forced to disk (unless
+     * the policy is NONE), the current snapshot is rotated into the backups,
+     * and the temp file is atomically renamed over the snapshot.
+     */
+    private static void writeAtomically(SnapshotWriter content) throws IOException {
+        Path target = snapshotFile().toPath().toAbsolutePath();
+        Path temp = target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+        
+        boolean moved = false;
+        try {
+            FileChannel channel = null;
+            try {
+                channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+                OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel));
+                content.write(out);
+                out.flush();
+                if (syncPolicy != SyncPolicy.NONE) {
+                    channel.force(true);
+                }
+            } finally {
+                if (channel != null) {
+                    try {
+                        channel.close();
+                    } catch (IOException e) {
+                        System.err.println("Error closing channel: " + e.getMessage());
+                    }
+                }
+            }
+            
+            rotateBackups(target);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            moved = true;
         } finally {
-            // Ensure writer is closed even if exception occurs
-            if (writer != null) {
+            // Whatever went wrong, don't leave a stray temp file behind
+            if (!moved) {
                 try {
-                    writer.close();
+                    Files.deleteIfExists(temp);
                 } catch (IOException e) {
-                    // Log but don't throw - already closing
-                    System.err.println("Error closing writer: " + e.getMessage());
+                    System.err.println("Error removing temp file: " + e.getMessage());
                 }
             }
         }
+        if (syncPolicy != SyncPolicy.NONE) {
+            syncDirectory(target.getParent());
+        }
+    }
+    
+    /**
+     * Shifts tasks.txt.1 .. tasks.txt.N-1 up by one and makes the current snapshot tasks.txt.1
+     * The snapshot is hard-linked rather than moved, so a valid tasks.txt exists
+     * at every moment without copying any data. Where links aren't supported it
+     * is moved; a crash before the rename then leaves it only in tasks.txt.1.
+     */
+    private static void rotateBackups(Path target) throws IOException {
+        int count = backupCount;
+        if (count <= 0 || !Files.exists(target)) {
+            return;
+        }
+        for (int i = count - 1; i >= 1; i--) {
+            Path older = backupPath(target, i);
+            if (Files.exists(older)) {
+                Files.move(older, backupPath(target, i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Path newest = backupPath(target, 1);
+        Files.deleteIfExists(newest);
+        try {
+            Files.createLink(newest, target);
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            Files.move(target, newest, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+    
+    private static Path backupPath(Path target, int generation) {
+        return target.resolveSibling(target.getFileName() + "." + generation);
+    }
+    
+    /**
+     * Forces a directory entry change (the rename) to disk
+     * Not every platform can open a directory; there the rename is left to the OS.
+     */
+    private static void syncDirectory(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Directories can't be opened for reading on Windows; nothing more to do there
+        }
+    }
+    
+    /**
+     * Rewrites the snapshot (plus any journaled changes) in binary format
+     * @return Number of tasks converted
+     * @throws IOException if file operations fail
+     */
+    public static int convertToBinary() throws IOException {
+        List<Task> tasks = loadTasks();
+        writeBinarySnapshot(tasks);
+        truncateJournal();
+        return tasks.size();
+    }
+    
+    /**
+     * Rewrites the snapshot (plus any journaled changes) in text format
+     * @return Number of tasks converted
+     * @throws IOException if file operations fail
+     */
+    public static int convertToText() throws IOException {
+        List<Task> tasks = loadTasks();
+        writeSnapshot(tasks);
+        truncateJournal();
+        return tasks.size();
     }
     
     /**
-     * Loads tasks from the file
+     * Loads tasks from the snapshot file and replays the journal on top
      * Handles missing file, empty file, and corrupted lines gracefully
      * @return List of tasks (empty list if file doesn't exist or is empty)
      * @throws IOException if file operations fail (except FileNotFoundException)
      */
     public static List<Task> loadTasks() throws IOException {
+        return loadTasks(null);
+    }
+    
+    /**
+     * Loads tasks like loadTasks(), reporting how far through the snapshot it is
+     * @param progress Receives values from 0.0 to 1.0, at most about 100 times (may be null)
+     * @return List of tasks (empty list if file doesn't exist or is empty)
+     * @throws IOException if file operations fail (except FileNotFoundException)
+     */
+    public static List<Task> loadTasks(DoubleConsumer progress) throws IOException {
+        List<Task> tasks = loadSnapshot(progress);
+        tasks = replayJournal(tasks);
+        if (progress != null) {
+            progress.accept(1.0);
+        }
+        return tasks;
+    }
+    
+    /**
+     * Loads tasks from the snapshot file only
+     */
+    private static List<Task> loadSnapshot(DoubleConsumer progress) throws IOException {
         List<Task> tasks = new ArrayList<>();
-        File file = new File(FILE_NAME);
+        File file = snapshotFile();
         
         // Handle file not found - return empty list (not an error)
         if (!file.exists()) {
             return tasks;
         }
         
+        // Binary snapshots need no text parsing at all
+        if (BinaryTaskFormat.isBinary(file)) {
+            return loadBinarySnapshot(file);
+        }
+        
+        // Large archives: parse newline-aligned chunks on the fork-join pool
+        long size = file.length();
+        if (size >= PARALLEL_LOAD_THRESHOLD) {
+            return loadSnapshotChunked(file, progress);
+        }
+        
         BufferedReader reader = null;
         try {
             reader = new BufferedReader(new FileReader(file));
             String line;
             int lineNumber = 0;
+            long charsRead = 0;
+            int lastPercent = 0;
             
             while ((line = reader.readLine()) != null) {
                 lineNumber++;
                 
+                // Characters approximate bytes well enough for a progress bar
+                charsRead += line.length() + 1;
+                int percent = (int) Math.min(100, charsRead * 100 / Math.max(1, size));
+                if (progress != null && percent > lastPercent) {
+                    lastPercent = percent;
+                    progress.accept(percent / 100.0);
+                }
+                
                 // Skip empty lines
                 if (line.trim().isEmpty()) {
                     continue;
@@ -94,11 +388,403 @@ public class FileHelper {
     }
     
     /**
-     * Checks if the tasks file exists
+     * Loads a snapshot written in binary format
+     */
+    private static List<Task> loadBinarySnapshot(File file) throws IOException {
+        InputStream in = null;
+        try {
+            in = new FileInputStream(file);
+            return BinaryTaskFormat.read(in, file.length());
+        } catch (EOFException e) {
+            throw new IOException("Binary task file " + FILE_NAME + " is truncated", e);
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    System.err.println("Error closing stream: " + e.getMessage());
+                }
+            }
+        }
+    }
+    
+    /**
+     * Loads the snapshot by reading it in blocks and parsing them in parallel
+     * Each block is parsed while the next is read. Blocks are cut at newlines
+     * and merged back in file order; corrupted-line warnings are printed after
+     * the merge so their line numbers stay correct.
+     *
+     * The blocks are plain positional reads rather than a memory mapping: a
+     * mapping stays open until it is garbage collected, and on Windows an
+     * open mapping stops the next save from renaming over the file.
+     */
+    private static List<Task> loadSnapshotChunked(File file, DoubleConsumer progress) throws IOException {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            long size = channel.size();
+            
+            // Each chunk ends just after a newline; the partial line after it starts the next one
+            List<ChunkParser> chunks = new ArrayList<>();
+            byte[] carry = new byte[0];
+            long position = 0;
+            while (position < size) {
+                int length = (int) Math.min(CHUNK_SIZE, size - position);
+                byte[] block = Arrays.copyOf(carry, carry.length + length);
+                ByteBuffer target = ByteBuffer.wrap(block, carry.length, length);
+                while (target.hasRemaining()) {
+                    int read = channel.read(target, position);
+                    if (read < 0) {
+                        throw new EOFException(FILE_NAME + " was truncated while loading");
+                    }
+                    position += read;
+                }
+                
+                int end = block.length;
+                if (position < size) {
+                    while (end > 0 && block[end - 1] != '\n') {
+                        end--;
+                    }
+                    if (end == 0) {
+                        // A single line longer than the block; read on
+                        carry = block;
+                        continue;
+                    }
+                }
+                carry = Arrays.copyOfRange(block, end, block.length);
+                ChunkParser chunk = new ChunkParser(block, end);
+                chunk.fork();
+                chunks.add(chunk);
+            }
+            
+            List<Task> tasks = new ArrayList<>();
+            int lineOffset = 0;
+            int lastPercent = 0;
+            for (int c = 0; c < chunks.size(); c++) {
+                ChunkResult result = chunks.get(c).join();
+                int percent = (c + 1) * 100 / chunks.size();
+                if (progress != null && percent > lastPercent) {
+                    lastPercent = percent;
+                    progress.accept(percent / 100.0);
+                }
+                tasks.addAll(result.tasks);
+                for (int i = 0; i < result.corruptedLines.size(); i++) {
+                    System.err.println("Warning: Corrupted line " + (lineOffset + result.corruptedLineNumbers.get(i))
+                        + " in " + FILE_NAME + ": " + result.corruptedLines.get(i));
+                }
+                lineOffset += result.lineCount;
+            }
+            return tasks;
+        } finally {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    System.err.println("Error closing channel: " + e.getMessage());
+                }
+            }
+        }
+    }
+    
+    /**
+     * Parsed contents of one chunk; line numbers are relative to the chunk start
+     */
+    private static class ChunkResult {
+        final List<Task> tasks = new ArrayList<>();
+        final List<Integer> corruptedLineNumbers = new ArrayList<>();
+        final List<String> corruptedLines = new ArrayList<>();
+        int lineCount;
+    }
+    
+    /**
+     * Fork-join task that decodes and parses one newline-aligned chunk
+     */
+    @SuppressWarnings("serial")
+    private static class ChunkParser extends RecursiveTask<ChunkResult> {
+        private final byte[] bytes;
+        private final int length;
+        
+        ChunkParser(byte[] bytes, int length) {
+            this.bytes = bytes;
+            this.length = length;
+        }
+        
+        @Override
+        protected ChunkResult compute() {
+            // Same charset FileReader uses for the sequential path
+            String text = new String(bytes, 0, length, Charset.defaultCharset());
+            
+            ChunkResult result = new ChunkResult();
+            int lineStart = 0;
+            while (lineStart < text.length()) {
+                int newline = text.indexOf('\n', lineStart);
+                int lineEnd = newline < 0 ? text.length() : newline;
+                int contentEnd = lineEnd > lineStart && text.charAt(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+                String line = text.substring(lineStart, contentEnd);
+                result.lineCount++;
+                lineStart = lineEnd + 1;
+                
+                // Skip empty lines
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                
+                Task task = Task.fromFileString(line);
+                if (task != null) {
+                    result.tasks.add(task);
+                } else {
+                    result.corruptedLineNumbers.add(result.lineCount);
+                    result.corruptedLines.add(line);
+                }
+            }
+            return result;
+        }
+    }
+    
+    /**
+     * Applies journal records to the tasks loaded from the snapshot
+     * Tasks keep their snapshot slot when updated; deletes leave a hole
+     * that is dropped at the end, so replay never shifts the list.
+     * @param snapshot Tasks loaded from the snapshot file
+     * @return List of tasks with all journaled changes applied
+     * @throws IOException if file operations fail
+     */
+    private static List<Task> replayJournal(List<Task> snapshot) throws IOException {
+        File journal = journalFile();
+        journalRecordCount = 0;
+        
+        if (!journal.exists()) {
+            return snapshot;
+        }
+        
+        List<Task> slots = new ArrayList<>(snapshot);
+        Map<String, Integer> slotById = new HashMap<>();
+        for (int i = 0; i < slots.size(); i++) {
+            slotById.put(slots.get(i).getId(), i);
+        }
+        boolean reordered = false;
+        // Display order of the last task in the list, so out-of-order adds are noticed
+        long lastOrder = snapshot.isEmpty() ? Long.MIN_VALUE : snapshot.get(snapshot.size() - 1).getDisplayOrder();
+        
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new FileReader(journal));
+            String line;
+            int lineNumber = 0;
+            
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                journalRecordCount++;
+                
+                // A crash mid-append leaves at most one torn record at the end
+                if (line.length() < 3 || line.charAt(1) != '|') {
+                    System.err.println("Warning: Corrupted line " + lineNumber + " in " + JOURNAL_FILE_NAME + ": " + line);
+                    continue;
+                }
+                
+                String payload = line.substring(2);
+                switch (line.charAt(0)) {
+                    case OP_ADD:
+                    case OP_UPDATE: {
+                        Task task = Task.fromFileString(payload);
+                        if (task == null) {
+                            System.err.println("Warning: Corrupted line " + lineNumber + " in " + JOURNAL_FILE_NAME + ": " + line);
+                            break;
+                        }
+                        Integer slot = slotById.get(task.getId());
+                        if (slot != null) {
+                            // Updates carry the display order too, so a move may arrive this way
+                            Task previous = slots.get(slot);
+                            if (previous != null && previous.getDisplayOrder() != task.getDisplayOrder()) {
+                                reordered = true;
+                            }
+                            slots.set(slot, task);
+                        } else {
+                            // A task added and then moved before it was journaled is one add record
+                            if (task.getDisplayOrder() < lastOrder) {
+                                reordered = true;
+                            }
+                            lastOrder = task.getDisplayOrder();
+                            slotById.put(task.getId(), slots.size());
+                            slots.add(task);
+                        }
+                        break;
+                    }
+                    case OP_DELETE: {
+                        Integer slot = slotById.remove(payload);
+                        if (slot != null) {
+                            slots.set(slot, null);
+                        }
+                        break;
+                    }
+                    default:
+                        System.err.println("Warning: Corrupted line " + lineNumber + " in " + JOURNAL_FILE_NAME + ": " + line);
+                }
+            }
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    System.err.println("Error closing reader: " + e.getMessage());
+                }
+            }
+        }
+        
+        List<Task> tasks = new ArrayList<>(slotById.size());
+        for (Task task : slots) {
+            if (task != null) {
+                tasks.add(task);
+            }
+        }
+        
+        // Records only carry the new display order, so restore list order from it
+        if (reordered) {
+            tasks.sort(Comparator.comparingInt(Task::getDisplayOrder));
+        }
+        
+        return tasks;
+    }
+    
+    /**
+     * Builds the journal record for a newly added task
+     * @param task The task that was added
+     * @return The record line
+     */
+    public static String addRecord(Task task) {
+        return OP_ADD + "|" + task.toFileString();
+    }
+    
+    /**
+     * Builds the journal record for an edited, toggled or moved task (its full new state)
+     * @param task The task that changed
+     * @return The record line
+     */
+    public static String updateRecord(Task task) {
+        return OP_UPDATE + "|" + task.toFileString();
+    }
+    
+    /**
+     * Builds the journal record for a deleted task
+     * @param taskId Id of the task that was removed
+     * @return The record line
+     */
+    public static String deleteRecord(String taskId) {
+        return OP_DELETE + "|" + taskId;
+    }
+    
+    /**
+     * Appends a batch of records to the journal in one write
+     * Check isCompactionDue afterwards.
+     * @param records Record lines built by the *Record methods
+     * @throws IOException if file operations fail
+     */
+    public static void appendRecords(List<String> records) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(journalFile().toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            BufferedWriter writer = new BufferedWriter(
+                new OutputStreamWriter(Channels.newOutputStream(channel), Charset.defaultCharset()));
+            for (String record : records) {
+                writer.write(record);
+                writer.newLine();
+            }
+            writer.flush();
+            
+            SyncPolicy policy = syncPolicy;
+            long now = System.currentTimeMillis();
+            if (policy == SyncPolicy.ALWAYS
+                    || (policy == SyncPolicy.BATCHED && now - lastJournalSyncMillis >= JOURNAL_SYNC_INTERVAL_MS)) {
+                channel.force(false);
+                lastJournalSyncMillis = now;
+                journalSyncPending = false;
+            } else if (policy == SyncPolicy.BATCHED) {
+                journalSyncPending = true;
+            }
+        } finally {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    System.err.println("Error closing channel: " + e.getMessage());
+                }
+            }
+        }
+        
+        journalRecordCount += records.size();
+    }
+    
+    /**
+     * Whether the journal is long enough that a fresh snapshot should be saved
+     * The caller saves the tasks it already holds; that removes the journal.
+     */
+    public static boolean isCompactionDue() {
+        return journalRecordCount >= COMPACTION_THRESHOLD;
+    }
+    
+    /**
+     * Whether a BATCHED journal append has not been forced to disk yet
+     */
+    public static boolean isJournalSyncPending() {
+        return journalSyncPending;
+    }
+    
+    /**
+     * Forces journal appends that BATCHED left unforced
+     * Called a sync interval after such an append and on shutdown.
+     * @throws IOException if forcing fails
+     */
+    public static void syncJournal() throws IOException {
+        if (!journalSyncPending) {
+            return;
+        }
+        File journal = journalFile();
+        if (journal.exists()) {
+            FileChannel channel = null;
+            try {
+                channel = FileChannel.open(journal.toPath(), StandardOpenOption.WRITE);
+                channel.force(false);
+            } finally {
+                if (channel != null) {
+                    try {
+                        channel.close();
+                    } catch (IOException e) {
+                        System.err.println("Error closing channel: " + e.getMessage());
+                    }
+                }
+            }
+        }
+        lastJournalSyncMillis = System.currentTimeMillis();
+        journalSyncPending = false;
+    }
+    
+    /**
+     * Deletes the journal once its records are part of the snapshot
+     */
+    private static void truncateJournal() throws IOException {
+        File journal = journalFile();
+        if (journal.exists() && !journal.delete()) {
+            throw new IOException("Could not remove " + JOURNAL_FILE_NAME);
+        }
+        journalRecordCount = 0;
+        journalSyncPending = false;
+    }
+    
+    /**
+     * Checks if the tasks file (or a journal of unsaved changes) exists
      * @return true if file exists, false otherwise
      */
     public static boolean fileExists() {
-        return new File(FILE_NAME).exists();
+        return snapshotFile().exists() || journalFile().exists();
     }
 }
 
@@ -1,24 +1,20 @@
 import javafx.application.Application;
 import javafx.application.Platform;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.input.*;
 import javafx.scene.layout.*;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import javafx.animation.*;
 import javafx.util.Duration;
 
-import java.io.IOException;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.stream.Collectors;
 
 /**
@@ -27,9 +23,8 @@ import java.util.stream.Collectors;
  */
 public class Main extends Application {
     
-    // Core data
-    private ObservableList<Task> allTasks;
-    private ObservableList<Task> filteredTasks;
+    // Core data; this class is only a view over the engine
+    private TaskEngine engine;
     
     // Main UI components
     private Stage primaryStage;
@@ -63,12 +58,11 @@ public class Main extends Application {
     
     // Current state
     private Theme currentTheme;
+    private String appliedThemeStylesheet;
     private String currentScreen = "dashboard";
-    private Timer notificationTimer;
     
-    // Date formatters
-    private static final DateTimeFormatter DISPLAY_FORMATTER = DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm");
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMM dd, yyyy");
+    // Formatted text and style classes for the task cells
+    private final TaskRenderCache renderCache = new TaskRenderCache();
     
     @Override
     public void start(Stage primaryStage) {
@@ -78,10 +72,11 @@ public class Main extends Application {
         // Load settings
         Settings.load();
         currentTheme = Settings.getTheme();
+        FileHelper.setSyncPolicy(Settings.getSyncPolicy());
+        FileHelper.setBackupCount(Settings.getBackupCount());
         
         // Initialize data
-        allTasks = FXCollections.observableArrayList();
-        filteredTasks = FXCollections.observableArrayList();
+        engine = new TaskEngine(Platform::runLater, this::handleDeadlinesReached);
         
         // Build UI
         buildUI();
@@ -99,12 +94,9 @@ public class Main extends Application {
         
         primaryStage.show();
         
-        // Auto-load tasks
+        // Auto-load tasks (reports tasks already overdue once loaded)
         autoLoadTasks();
         
-        // Start notification checker
-        startNotificationTimer();
-        
         // Show dashboard
         showScreen("dashboard");
     }
@@ -346,7 +338,7 @@ public class Main extends Application {
         Label listLabel = new Label("Your Tasks");
         listLabel.getStyleClass().add("section-title");
         
-        taskListView = new ListView<>(filteredTasks);
+        taskListView = new ListView<>(engine.getVisibleTasks());
         taskListView.getStyleClass().add("task-list-view");
         taskListView.setCellFactory(lv -> new DraggableTaskCell());
         taskListView.setPlaceholder(new Label("No tasks found. Add your first task! 🎯"));
@@ -377,7 +369,20 @@ public class Main extends Application {
         clearCompletedButton.getStyleClass().add("button-danger");
         clearCompletedButton.setOnAction(e -> handleClearCompleted());
         
-        actionBar.getChildren().addAll(saveButton, loadButton, clearCompletedButton);
+        Button completeShownButton = new Button("✅ Complete Shown");
+        completeShownButton.getStyleClass().add("button-secondary");
+        completeShownButton.setOnAction(e -> handleCompleteShown());
+        
+        Button exportButton = new Button("📤 Export");
+        exportButton.getStyleClass().add("button-secondary");
+        exportButton.setOnAction(e -> handleExportTasks());
+        
+        Button importButton = new Button("📥 Import");
+        importButton.getStyleClass().add("button-secondary");
+        importButton.setOnAction(e -> handleImportTasks(importButton));
+        
+        actionBar.getChildren().addAll(saveButton, loadButton, importButton, exportButton,
+                                       completeShownButton, clearCompletedButton);
         
         return actionBar;
     }
@@ -393,6 +398,14 @@ public class Main extends Application {
         private Label tagBadge;
         private Label dueBadge;
         private HBox buttonBox;
+        private Button completeButton;
+        
+        // What the labels currently show, so unchanged rows skip all updates
+        private TaskRenderCache.RenderState shownState;
+        private String shownDueText;
+        private String descriptionClass;
+        private String tagClass;
+        private String dueClass;
         
         public DraggableTaskCell() {
             super();
@@ -405,6 +418,7 @@ public class Main extends Application {
             
             HBox badgeBox = new HBox(5);
             tagBadge = new Label();
+            tagBadge.getStyleClass().add("tag-badge");
             dueBadge = new Label();
             badgeBox.getChildren().addAll(tagBadge, dueBadge);
             
@@ -414,14 +428,30 @@ public class Main extends Application {
             buttonBox = new HBox(5);
             buttonBox.setAlignment(Pos.CENTER_RIGHT);
             
-            Button completeButton = new Button();
+            completeButton = new Button();
             completeButton.getStyleClass().addAll("task-button", "task-button-complete");
+            completeButton.setOnAction(e -> {
+                if (getItem() != null) {
+                    engine.toggleCompleted(getItem());
+                    updateDashboard();
+                }
+            });
             
             Button editButton = new Button("✏️");
             editButton.getStyleClass().addAll("task-button", "task-button-edit");
+            editButton.setOnAction(e -> {
+                if (getItem() != null) {
+                    handleEditTask(getItem());
+                }
+            });
             
             Button deleteButton = new Button("🗑️");
             deleteButton.getStyleClass().addAll("task-button", "task-button-delete");
+            deleteButton.setOnAction(e -> {
+                if (getItem() != null) {
+                    handleDeleteTask(getItem());
+                }
+            });
             
             buttonBox.getChildren().addAll(completeButton, editButton, deleteButton);
             
@@ -471,27 +501,8 @@ public class Main extends Application {
                 boolean success = false;
                 
                 if (db.hasString()) {
-                    String draggedId = db.getString();
-                    Task draggedTask = allTasks.stream()
-                        .filter(t -> t.getId().equals(draggedId))
-                        .findFirst()
-                        .orElse(null);
-                    
-                    if (draggedTask != null) {
-                        int draggedIdx = allTasks.indexOf(draggedTask);
-                        int thisIdx = allTasks.indexOf(getItem());
-                        
-                        allTasks.remove(draggedIdx);
-                        allTasks.add(thisIdx, draggedTask);
-                        
-                        // Update display orders
-                        for (int i = 0; i < allTasks.size(); i++) {
-                            allTasks.get(i).setDisplayOrder(i);
-                        }
-                        
-                        filterTasks();
-                        success = true;
-                    }
+                    Task draggedTask = engine.getTask(db.getString());
+                    success = draggedTask != null && engine.moveTask(draggedTask, getItem());
                 }
                 
                 event.setDropCompleted(success);
@@ -504,74 +515,63 @@ public class Main extends Application {
             super.updateItem(task, empty);
             
             if (empty || task == null) {
+                shownState = null;
+                shownDueText = null;
                 setGraphic(null);
+                return;
+            }
+            
+            TaskRenderCache.RenderState state = renderCache.get(task);
+            if (state == shownState && state.getDueText() == shownDueText) {
+                // Same task version and due badge: the labels are already right
+                setGraphic(content);
+                return;
+            }
+            // Update description
+            taskDescription.setText(task.getDescription());
+            descriptionClass = swapStyleClass(taskDescription, descriptionClass, state.getDescriptionStyleClass());
+            
+            // Update details
+            taskDetails.setText(state.getDetails());
+            
+            // Update tag badge
+            if (state.getTagText() != null) {
+                tagBadge.setText(state.getTagText());
+                tagClass = swapStyleClass(tagBadge, tagClass, state.getTagStyleClass());
+                tagBadge.setVisible(true);
             } else {
-                // Update description
-                if (task.isCompleted()) {
-                    taskDescription.setText(task.getDescription());
-                    taskDescription.getStyleClass().clear();
-                    taskDescription.getStyleClass().add("task-content-completed");
-                } else {
-                    taskDescription.setText(task.getDescription());
-                    taskDescription.getStyleClass().clear();
-                    taskDescription.getStyleClass().add("task-content");
-                }
-                
-                // Update details
-                String details = "Created: " + task.getCreatedAt().format(DISPLAY_FORMATTER);
-                if (task.isCompleted() && task.getCompletedAt() != null) {
-                    details += " • Completed: " + task.getCompletedAt().format(DISPLAY_FORMATTER);
-                }
-                taskDetails.setText(details);
-                
-                // Update tag badge
-                if (!task.getTag().equals(Task.TAG_NONE)) {
-                    tagBadge.setText("🏷️ " + task.getTag());
-                    tagBadge.getStyleClass().clear();
-                    tagBadge.getStyleClass().add("tag-badge");
-                    tagBadge.setStyle("-fx-background-color: " + task.getTagColor() + "20; -fx-text-fill: " + task.getTagColor() + ";");
-                    tagBadge.setVisible(true);
-                } else {
-                    tagBadge.setVisible(false);
-                }
-                
-                // Update due date badge
-                if (task.getDueDate() != null && !task.isCompleted()) {
-                    if (task.isOverdue()) {
-                        dueBadge.setText("⚠️ OVERDUE");
-                        dueBadge.getStyleClass().clear();
-                        dueBadge.getStyleClass().add("due-badge-overdue");
-                    } else if (task.isDueSoon()) {
-                        dueBadge.setText("⏰ Due Soon");
-                        dueBadge.getStyleClass().clear();
-                        dueBadge.getStyleClass().add("due-badge-soon");
-                    } else {
-                        dueBadge.setText("📅 Due: " + task.getDueDate().format(DATE_FORMATTER));
-                        dueBadge.getStyleClass().clear();
-                        dueBadge.getStyleClass().add("due-badge-normal");
-                    }
-                    dueBadge.setVisible(true);
-                } else {
-                    dueBadge.setVisible(false);
+                tagBadge.setVisible(false);
+            }
+            
+            // Update due date badge
+            if (state.getDueText() != null) {
+                dueBadge.setText(state.getDueText());
+                dueClass = swapStyleClass(dueBadge, dueClass, state.getDueStyleClass());
+                dueBadge.setVisible(true);
+            } else {
+                dueBadge.setVisible(false);
+            }
+            
+            // Update buttons (their handlers act on getItem())
+            completeButton.setText(state.getCompleteButtonText());
+            
+            shownState = state;
+            shownDueText = state.getDueText();
+            setGraphic(content);
+        }
+        
+        /**
+         * Replaces one style class with another, leaving the list alone if they match
+         * @return The class now applied
+         */
+        private String swapStyleClass(Label label, String oldClass, String newClass) {
+            if (!Objects.equals(oldClass, newClass)) {
+                if (oldClass != null) {
+                    label.getStyleClass().remove(oldClass);
                 }
-                
-                // Update buttons
-                Button completeBtn = (Button) buttonBox.getChildren().get(0);
-                Button editBtn = (Button) buttonBox.getChildren().get(1);
-                Button deleteBtn = (Button) buttonBox.getChildren().get(2);
-                
-                completeBtn.setText(task.isCompleted() ? "↩️" : "✓");
-                completeBtn.setOnAction(e -> {
-                    task.toggleCompleted();
-                    taskListView.refresh();
-                    updateDashboard();
-                });
-                
-                editBtn.setOnAction(e -> handleEditTask(task));
-                deleteBtn.setOnAction(e -> handleDeleteTask(task));
-                
-                setGraphic(content);
+                label.getStyleClass().add(newClass);
             }
+            return newClass;
         }
     }
     
@@ -721,36 +721,21 @@ public class Main extends Application {
     
     /**
      * Filters tasks based on search and tag filter
+     * Only called when the filter inputs change
      */
     private void filterTasks() {
-        String searchText = searchField.getText().toLowerCase();
         String selectedTag = tagFilter.getValue();
-        
-        List<Task> filtered = allTasks.stream()
-            .filter(task -> {
-                // Search filter
-                boolean matchesSearch = searchText.isEmpty() || 
-                    task.getDescription().toLowerCase().contains(searchText);
-                
-                // Tag filter
-                boolean matchesTag = selectedTag.equals("All Tags") || 
-                    task.getTag().equals(selectedTag);
-                
-                return matchesSearch && matchesTag;
-            })
-            .collect(Collectors.toList());
-        
-        filteredTasks.clear();
-        filteredTasks.addAll(filtered);
+        engine.setFilter(selectedTag.equals("All Tags") ? null : selectedTag, searchField.getText());
     }
     
     /**
      * Updates dashboard statistics
      */
     private void updateDashboard() {
-        int total = allTasks.size();
-        long completed = allTasks.stream().filter(Task::isCompleted).count();
-        long pending = total - completed;
+        TaskStatistics statistics = engine.getStatistics();
+        int total = statistics.getTotalCount();
+        int completed = statistics.getCompletedCount();
+        int pending = statistics.getPendingCount();
         
         totalTasksLabel.setText(String.valueOf(total));
         completedTasksLabel.setText(String.valueOf(completed));
@@ -763,8 +748,6 @@ public class Main extends Application {
         // Update progress text
         Label progressText = (Label) ((VBox) progressBar.getParent()).getChildren().get(2);
         progressText.setText(String.format("%.0f%%", progress * 100));
-        
-        filterTasks();
     }
     
     /**
@@ -779,16 +762,11 @@ public class Main extends Application {
             return;
         }
         
-        Task newTask = new Task(description);
-        newTask.setTag(tagSelector.getValue());
-        
+        LocalDateTime dueDateTime = null;
         if (enableDueDateCheckBox.isSelected() && dueDatePicker.getValue() != null) {
-            LocalDateTime dueDateTime = dueDatePicker.getValue().atTime(23, 59);
-            newTask.setDueDate(dueDateTime);
+            dueDateTime = dueDatePicker.getValue().atTime(23, 59);
         }
-        
-        newTask.setDisplayOrder(allTasks.size());
-        allTasks.add(newTask);
+        engine.addTask(description, tagSelector.getValue(), dueDateTime);
         
         showInfoAlert("Success", "Task Added!", "Your task has been added successfully.");
         showScreen("dashboard");
@@ -849,15 +827,11 @@ public class Main extends Application {
         
         dialog.setResultConverter(dialogButton -> {
             if (dialogButton == saveButtonType) {
-                task.setDescription(descField.getText().trim());
-                task.setTag(tagCombo.getValue());
-                
+                LocalDateTime dueDate = null;
                 if (dueDateCheck.isSelected() && datePicker.getValue() != null) {
-                    task.setDueDate(datePicker.getValue().atTime(23, 59));
-                } else {
-                    task.setDueDate(null);
+                    dueDate = datePicker.getValue().atTime(23, 59);
                 }
-                
+                engine.updateTask(task, descField.getText().trim(), tagCombo.getValue(), dueDate);
                 return task;
             }
             return null;
@@ -865,7 +839,6 @@ public class Main extends Application {
         
         Optional<Task> result = dialog.showAndWait();
         if (result.isPresent()) {
-            taskListView.refresh();
             updateDashboard();
         }
     }
@@ -881,7 +854,7 @@ public class Main extends Application {
         
         Optional<ButtonType> result = alert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            allTasks.remove(task);
+            engine.deleteTask(task);
             updateDashboard();
         }
     }
@@ -890,7 +863,7 @@ public class Main extends Application {
      * Handles clearing completed tasks
      */
     private void handleClearCompleted() {
-        long completedCount = allTasks.stream().filter(Task::isCompleted).count();
+        int completedCount = engine.getStatistics().getCompletedCount();
         
         if (completedCount == 0) {
             showInfoAlert("No Completed Tasks", "There are no completed tasks to clear.", 
@@ -905,7 +878,31 @@ public class Main extends Application {
         
         Optional<ButtonType> result = alert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            allTasks.removeIf(Task::isCompleted);
+            engine.clearCompleted();
+            updateDashboard();
+        }
+    }
+    
+    /**
+     * Completes every pending task that passes the current search and tag filter
+     */
+    private void handleCompleteShown() {
+        long pendingCount = engine.getVisibleTasks().stream().filter(task -> !task.isCompleted()).count();
+        
+        if (pendingCount == 0) {
+            showInfoAlert("Nothing to Complete", "All shown tasks are already complete.", 
+                         "Change the search or filter to show pending tasks.");
+            return;
+        }
+        
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+        alert.setTitle("Complete Shown Tasks");
+        alert.setHeaderText("Mark all shown tasks as complete?");
+        alert.setContentText("This will complete " + pendingCount + " pending task(s).");
+        
+        Optional<ButtonType> result = alert.showAndWait();
+        if (result.isPresent() && result.get() == ButtonType.OK) {
+            engine.completeVisible();
             updateDashboard();
         }
     }
@@ -914,28 +911,25 @@ public class Main extends Application {
      * Handles saving tasks
      */
     private void handleSaveTasks() {
-        if (allTasks.isEmpty()) {
+        if (engine.getTasks().isEmpty()) {
             showWarningAlert("No Tasks", "There are no tasks to save.", 
                            "Add some tasks before saving.");
             return;
         }
         
-        try {
-            FileHelper.saveTasks(allTasks);
-            showInfoAlert("Success", "Tasks saved successfully!", 
-                         allTasks.size() + " task(s) saved to tasks.txt");
-            
-        } catch (IOException e) {
-            showErrorAlert("Save Error", "Failed to save tasks!", 
-                          "Error: " + e.getMessage());
-        }
+        int count = engine.getTasks().size();
+        engine.saveTasks(
+            () -> showInfoAlert("Success", "Tasks saved successfully!", 
+                               count + " task(s) saved to tasks.txt"),
+            e -> showErrorAlert("Save Error", "Failed to save tasks!", 
+                                "Error: " + e.getMessage()));
     }
     
     /**
      * Handles loading tasks
      */
     private void handleLoadTasks() {
-        if (!allTasks.isEmpty()) {
+        if (!engine.getTasks().isEmpty()) {
             Optional<ButtonType> result = showConfirmationAlert(
                 "Load Tasks", 
                 "This will replace all current tasks.",
@@ -947,8 +941,10 @@ public class Main extends Application {
             }
         }
         
-        try {
-            List<Task> loadedTasks = FileHelper.loadTasks();
+        showLoadingProgress(0);
+        engine.loadTasks(this::showLoadingProgress, loadedTasks -> {
+            hideLoadingProgress();
+            updateDashboard();
             
             if (loadedTasks.isEmpty()) {
                 if (!FileHelper.fileExists()) {
@@ -958,39 +954,155 @@ public class Main extends Application {
                     showInfoAlert("Empty File", "No tasks in file.", 
                                 "The tasks.txt file is empty.");
                 }
-                allTasks.clear();
-                updateDashboard();
                 return;
             }
             
-            allTasks.clear();
-            allTasks.addAll(loadedTasks);
-            updateDashboard();
-            
             showInfoAlert("Success", "Tasks loaded successfully!", 
                          loadedTasks.size() + " task(s) loaded from tasks.txt");
-            
-        } catch (IOException e) {
+        }, e -> {
+            hideLoadingProgress();
             showErrorAlert("Load Error", "Failed to load tasks!", 
                           "Error: " + e.getMessage());
+        });
+    }
+    
+    /**
+     * Exports all tasks, or just the shown ones, as CSV, JSON Lines or iCalendar
+     */
+    private void handleExportTasks() {
+        if (engine.getTasks().isEmpty()) {
+            showWarningAlert("No Tasks", "There are no tasks to export.", 
+                           "Add some tasks before exporting.");
+            return;
+        }
+        
+        // With a search or tag filter active, offer to export only what is shown
+        boolean visibleOnly = false;
+        if (engine.getVisibleTasks().size() < engine.getTasks().size()) {
+            ButtonType shownButton = new ButtonType("Shown Tasks (" + engine.getVisibleTasks().size() + ")");
+            ButtonType allButton = new ButtonType("All Tasks (" + engine.getTasks().size() + ")");
+            Alert alert = new Alert(Alert.AlertType.CONFIRMATION, "", shownButton, allButton, ButtonType.CANCEL);
+            alert.setTitle("Export Tasks");
+            alert.setHeaderText("Which tasks do you want to export?");
+            alert.setContentText("A search or tag filter is active.");
+            
+            Optional<ButtonType> result = alert.showAndWait();
+            if (result.isEmpty() || result.get() == ButtonType.CANCEL) {
+                return;
+            }
+            visibleOnly = result.get() == shownButton;
         }
+        
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export Tasks");
+        chooser.getExtensionFilters().addAll(
+            new FileChooser.ExtensionFilter("CSV", "*.csv", "*.csv.gz"),
+            new FileChooser.ExtensionFilter("JSON Lines", "*.jsonl", "*.jsonl.gz"),
+            new FileChooser.ExtensionFilter("iCalendar", "*.ics", "*.ics.gz")
+        );
+        chooser.setInitialFileName("tasks.csv");
+        java.io.File file = chooser.showSaveDialog(primaryStage);
+        if (file == null) {
+            return;
+        }
+        
+        // The extension decides the format; without one, use the chosen filter's
+        TaskExporter.Format format = TaskExporter.Format.forFileName(file.getName());
+        if (format == null) {
+            int filterIndex = chooser.getExtensionFilters().indexOf(chooser.getSelectedExtensionFilter());
+            format = TaskExporter.Format.values()[Math.max(0, filterIndex)];
+            file = new java.io.File(file.getParentFile(), file.getName() + "." + format.getExtension());
+        }
+        
+        String fileName = file.getName();
+        engine.exportTasks(format, file, visibleOnly,
+            count -> showInfoAlert("Success", "Tasks exported successfully!", 
+                                  count + " task(s) exported to " + fileName),
+            e -> showErrorAlert("Export Error", "Failed to export tasks!", 
+                               "Error: " + e.getMessage()));
+    }
+    
+    /**
+     * Imports tasks from a task file, CSV or JSON Lines, merging them by id
+     * @param importButton Disabled until the import is done
+     */
+    private void handleImportTasks(Button importButton) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Import Tasks");
+        chooser.getExtensionFilters().addAll(
+            new FileChooser.ExtensionFilter("Task Files", "*.txt", "*.txt.gz"),
+            new FileChooser.ExtensionFilter("CSV", "*.csv", "*.csv.gz"),
+            new FileChooser.ExtensionFilter("JSON Lines", "*.jsonl", "*.jsonl.gz")
+        );
+        java.io.File file = chooser.showOpenDialog(primaryStage);
+        if (file == null) {
+            return;
+        }
+        
+        // The extension decides the format; without one, use the chosen filter's
+        TaskImporter.Format format = TaskImporter.Format.forFileName(file.getName());
+        if (format == null) {
+            int filterIndex = chooser.getExtensionFilters().indexOf(chooser.getSelectedExtensionFilter());
+            format = TaskImporter.Format.values()[Math.max(0, filterIndex)];
+        }
+        
+        String fileName = file.getName();
+        importButton.setDisable(true);
+        showLoadingProgress(0);
+        engine.importTasks(format, file, this::showLoadingProgress, result -> {
+            importButton.setDisable(false);
+            hideLoadingProgress();
+            updateDashboard();
+            
+            String details = result.getAdded() + " added, " + result.getUpdated() + " updated, "
+                           + result.getUnchanged() + " unchanged";
+            if (result.getSkipped() > 0) {
+                details += ", " + result.getSkipped() + " unreadable record(s) skipped";
+            }
+            showInfoAlert("Success", "Tasks imported from " + fileName, details);
+        }, e -> {
+            importButton.setDisable(false);
+            hideLoadingProgress();
+            updateDashboard();
+            showErrorAlert("Import Error", "Failed to import tasks!", 
+                          "Error: " + e.getMessage());
+        });
     }
     
     /**
      * Auto-loads tasks on startup
      */
     private void autoLoadTasks() {
-        try {
-            List<Task> loadedTasks = FileHelper.loadTasks();
+        showLoadingProgress(0);
+        engine.loadSavedTasks(this::showLoadingProgress, loadedTasks -> {
+            hideLoadingProgress();
             
             if (!loadedTasks.isEmpty()) {
-                allTasks.addAll(loadedTasks);
                 updateDashboard();
+                
+                // Deadlines already passed are never fired, so report those now
+                if (Settings.areNotificationsEnabled()) {
+                    checkForOverdueTasks();
+                }
             }
-            
-        } catch (IOException e) {
+        }, e -> {
+            hideLoadingProgress();
             System.err.println("Auto-load warning: " + e.getMessage());
-        }
+        });
+    }
+    
+    /**
+     * Shows load progress in place of the empty-list placeholder
+     */
+    private void showLoadingProgress(double fraction) {
+        taskListView.setPlaceholder(new Label(String.format("Loading tasks... %.0f%%", fraction * 100)));
+    }
+    
+    /**
+     * Restores the normal empty-list placeholder
+     */
+    private void hideLoadingProgress() {
+        taskListView.setPlaceholder(new Label("No tasks found. Add your first task! 🎯"));
     }
     
     /**
@@ -1003,143 +1115,69 @@ public class Main extends Application {
     }
     
     /**
-     * Applies the current theme dynamically by creating a temporary CSS file
+     * Applies the current theme by swapping in its in-memory stylesheet
      */
     private void applyTheme() {
         // Update main container gradient
-        String gradientStyle = String.format(
-            "-fx-background-color: linear-gradient(to bottom right, %s, %s);",
-            currentTheme.getGradientStart(),
-            currentTheme.getGradientEnd()
-        );
-        mainContainer.setStyle(gradientStyle);
-        
-        // Create dynamic CSS content
-        String dynamicCSS = String.format(
-            ".button-primary { " +
-            "  -fx-background-color: linear-gradient(to bottom right, %s, %s) !important; " +
-            "  -fx-effect: dropshadow(gaussian, derive(%s, -20%%), 10, 0, 0, 4); " +
-            "} " +
-            ".button-primary:hover { " +
-            "  -fx-background-color: linear-gradient(to bottom right, %s, %s) !important; " +
-            "  -fx-effect: dropshadow(gaussian, derive(%s, -20%%), 15, 0, 0, 6); " +
-            "} " +
-            ".button-secondary { " +
-            "  -fx-text-fill: %s !important; " +
-            "  -fx-border-color: %s !important; " +
-            "} " +
-            ".button-secondary:hover { " +
-            "  -fx-background-color: %s !important; " +
-            "} " +
-            ".stat-total .stat-number { -fx-text-fill: %s !important; } " +
-            ".search-field:focused { " +
-            "  -fx-border-color: %s !important; " +
-            "} " +
-            ".task-list-view .list-cell:hover { " +
-            "  -fx-border-color: %s !important; " +
-            "} " +
-            ".task-list-view .list-cell:selected { " +
-            "  -fx-border-color: %s !important; " +
-            "} " +
-            ".task-button { -fx-text-fill: %s !important; } " +
-            ".form-input:focused { " +
-            "  -fx-border-color: %s !important; " +
-            "} " +
-            ".dialog-pane .header-panel { " +
-            "  -fx-background-color: linear-gradient(to bottom right, %s, %s) !important; " +
-            "}",
-            currentTheme.getPrimaryColor(), currentTheme.getSecondaryColor(),
-            currentTheme.getPrimaryColor(),
-            currentTheme.getSecondaryColor(), darkenColor(currentTheme.getSecondaryColor()),
-            currentTheme.getPrimaryColor(),
-            currentTheme.getPrimaryColor(),
-            currentTheme.getPrimaryColor(),
-            currentTheme.getPrimaryColor(),
-            currentTheme.getPrimaryColor(),
-            currentTheme.getPrimaryColor(),
-            currentTheme.getPrimaryColor(),
-            currentTheme.getPrimaryColor(),
-            currentTheme.getPrimaryColor(),
-            currentTheme.getPrimaryColor(),
-            currentTheme.getPrimaryColor(), currentTheme.getSecondaryColor()
-        );
-        
-        // Write to temporary CSS file
-        try {
-            java.io.FileWriter writer = new java.io.FileWriter("theme-override.css");
-            writer.write(dynamicCSS);
-            writer.close();
-            
-            // Remove old theme stylesheet if exists
-            primaryStage.getScene().getStylesheets().removeIf(s -> s.contains("theme-override.css"));
-            
-            // Add new theme stylesheet
-            primaryStage.getScene().getStylesheets().add(new java.io.File("theme-override.css").toURI().toString());
-            
-        } catch (Exception e) {
-            System.err.println("Error applying theme: " + e.getMessage());
+        mainContainer.setStyle(currentTheme.getBackgroundStyle());
+        
+        // The theme's stylesheet is built once and held in memory as a data: URI
+        List<String> stylesheets = primaryStage.getScene().getStylesheets();
+        String stylesheet = currentTheme.getStylesheet();
+        int index = appliedThemeStylesheet != null ? stylesheets.indexOf(appliedThemeStylesheet) : -1;
+        if (index >= 0) {
+            stylesheets.set(index, stylesheet);
+        } else {
+            stylesheets.add(stylesheet);
         }
+        appliedThemeStylesheet = stylesheet;
     }
     
     /**
-     * Darkens a color for hover effects
+     * Called by the DeadlineScheduler the moment tasks become due soon or overdue
+     * @param overdue Tasks that just went overdue
+     * @param dueSoon Tasks that just became due soon
      */
-    private String darkenColor(String color) {
-        if (color.startsWith("#") && color.length() == 7) {
-            try {
-                int r = Integer.parseInt(color.substring(1, 3), 16);
-                int g = Integer.parseInt(color.substring(3, 5), 16);
-                int b = Integer.parseInt(color.substring(5, 7), 16);
-                
-                r = Math.max(0, r - 30);
-                g = Math.max(0, g - 30);
-                b = Math.max(0, b - 30);
-                
-                return String.format("#%02x%02x%02x", r, g, b);
-            } catch (Exception e) {
-                return color;
-            }
+    private void handleDeadlinesReached(List<Task> overdue, List<Task> dueSoon) {
+        // Badges are computed when a cell renders, so redraw the visible cells
+        taskListView.refresh();
+        updateDashboard();
+        
+        if (!Settings.areNotificationsEnabled()) {
+            return;
         }
-        return color;
+        // The task may have been completed while the event was on its way
+        List<Task> stillOverdue = overdue.stream()
+            .filter(task -> engine.contains(task) && task.isOverdue())
+            .collect(Collectors.toList());
+        showOverdueNotification(stillOverdue);
     }
     
     /**
-     * Starts notification timer to check for overdue tasks
+     * Checks for overdue tasks and shows notifications
      */
-    private void startNotificationTimer() {
-        notificationTimer = new Timer(true);
-        notificationTimer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                if (Settings.areNotificationsEnabled()) {
-                    checkForOverdueTasks();
-                }
-            }
-        }, 60000, 300000); // Check every 5 minutes
+    private void checkForOverdueTasks() {
+        showOverdueNotification(engine.getOverdueTasks());
     }
     
     /**
-     * Checks for overdue tasks and shows notifications
+     * Lists overdue tasks in a non-blocking alert
      */
-    private void checkForOverdueTasks() {
-        List<Task> overdueTasks = allTasks.stream()
-            .filter(task -> !task.isCompleted() && task.isOverdue())
-            .collect(Collectors.toList());
+    private void showOverdueNotification(List<Task> overdueTasks) {
+        if (overdueTasks.isEmpty()) {
+            return;
+        }
         
-        if (!overdueTasks.isEmpty()) {
-            Platform.runLater(() -> {
-                Alert alert = new Alert(Alert.AlertType.WARNING);
-                alert.setTitle("Overdue Tasks");
-                alert.setHeaderText("You have " + overdueTasks.size() + " overdue task(s)!");
-                
-                StringBuilder content = new StringBuilder();
-                for (Task task : overdueTasks) {
-                    content.append("• ").append(task.getDescription()).append("\n");
-                }
-                alert.setContentText(content.toString());
-                alert.show();
-            });
+        Alert alert = new Alert(Alert.AlertType.WARNING);
+        alert.setTitle("Overdue Tasks");
+        alert.setHeaderText("You have " + overdueTasks.size() + " overdue task(s)!");
+        
+        StringBuilder content = new StringBuilder();
+        for (Task task : overdueTasks) {
+            content.append("• ").append(task.getDescription()).append("\n");
         }
+        alert.setContentText(content.toString());
+        alert.show();
     }
     
     /**
@@ -1179,9 +1217,11 @@ public class Main extends Application {
     
     @Override
     public void stop() {
-        if (notificationTimer != null) {
-            notificationTimer.cancel();
+        // Let pending autosave changes and queued journal writes reach the disk before exiting
+        if (engine != null) {
+            engine.shutdown(5000);
         }
+        Settings.flush();
     }
     
     public static void main(String[] args) {
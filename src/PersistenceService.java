@@ -0,0 +1,191 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+
+/**
+ * PersistenceService.java
+ * Runs FileHelper work on a background thread so the UI never waits on disk.
+ *
+ * Every file operation goes through one worker thread, so journal appends,
+ * saves and loads happen in the order they were requested. Saves are
+ * coalesced: when several are queued, only the newest one is written.
+ * Results, errors and progress are handed to the callback executor
+ * (Platform::runLater in the app).
+ *
+ * Under SyncPolicy.BATCHED a journal append may be left unforced; the
+ * worker then forces the journal one sync interval later, and again on
+ * shutdown, so no append stays unforced for long.
+ */
+public class PersistenceService {
+    /**
+     * A file operation that may fail with an IOException
+     */
+    public interface FileOperation {
+        void run() throws IOException;
+    }
+    
+    private final ScheduledThreadPoolExecutor worker;
+    private final Executor callbackExecutor;
+    
+    // Worker thread only: a deferred journal sync is queued
+    private boolean journalSyncScheduled = false;
+    
+    // Only the save with the latest generation is actually written
+    private final AtomicLong saveGeneration = new AtomicLong();
+    
+    /**
+     * @param callbackExecutor Where results are delivered, e.g. Platform::runLater
+     */
+    public PersistenceService(Executor callbackExecutor) {
+        this.callbackExecutor = callbackExecutor;
+        this.worker = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "task-persistence");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // shutdown() syncs right away instead
+        worker.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+    
+    /**
+     * Loads tasks in the background
+     * @param onProgress Receives load progress from 0.0 to 1.0
+     * @param onLoaded Receives the loaded tasks
+     * @param onError Receives the failure if loading fails
+     */
+    public void loadTasks(DoubleConsumer onProgress, Consumer<List<Task>> onLoaded, Consumer<IOException> onError) {
+        worker.execute(() -> {
+            try {
+                List<Task> tasks = FileHelper.loadTasks(
+                    fraction -> callbackExecutor.execute(() -> onProgress.accept(fraction)));
+                callbackExecutor.execute(() -> onLoaded.accept(tasks));
+            } catch (IOException e) {
+                callbackExecutor.execute(() -> onError.accept(e));
+            }
+        });
+    }
+    
+    /**
+     * Saves a snapshot of the task list in the background
+     * If another save is requested before this one starts, this one is skipped
+     * and its callbacks are never called; the newer save covers it.
+     * @param tasks A copy of the task list, not the live list
+     * @param onSaved Called after the snapshot is written
+     * @param onError Receives the failure if saving fails
+     */
+    public void saveTasks(List<Task> tasks, Runnable onSaved, Consumer<IOException> onError) {
+        long generation = saveGeneration.incrementAndGet();
+        worker.execute(() -> {
+            if (generation != saveGeneration.get()) {
+                return;
+            }
+            try {
+                FileHelper.saveTasks(tasks);
+                callbackExecutor.execute(onSaved);
+            } catch (IOException e) {
+                callbackExecutor.execute(() -> onError.accept(e));
+            }
+        });
+    }
+    
+    /**
+     * Exports tasks in the background (see TaskExporter)
+     * @param tasks Tasks to export; must not change during the export, e.g. a snapshot
+     * @param file Destination, gzip-compressed if the name ends in .gz
+     * @param onExported Receives the number of tasks written
+     * @param onError Receives the failure if exporting fails
+     */
+    public void exportTasks(Iterable<Task> tasks, TaskExporter.Format format, File file,
+                            Consumer<Long> onExported, Consumer<IOException> onError) {
+        worker.execute(() -> {
+            try {
+                long count = TaskExporter.exportToFile(tasks, format, file);
+                callbackExecutor.execute(() -> onExported.accept(count));
+            } catch (IOException e) {
+                callbackExecutor.execute(() -> onError.accept(e));
+            }
+        });
+    }
+    
+    /**
+     * Queues a small file operation such as a journal append
+     * Failures are logged rather than reported, since these run on every edit.
+     */
+    public void submit(FileOperation operation) {
+        worker.execute(() -> {
+            try {
+                operation.run();
+            } catch (IOException e) {
+                System.err.println("Persistence warning: " + e.getMessage());
+            }
+            scheduleJournalSync();
+        });
+    }
+    
+    /**
+     * Appends journal records in the background (see submit)
+     * @param onCompactionDue Called on the callback executor once the journal is
+     *                        long enough that the caller should save a snapshot
+     */
+    public void appendRecords(List<String> records, Runnable onCompactionDue) {
+        submit(() -> {
+            FileHelper.appendRecords(records);
+            if (FileHelper.isCompactionDue()) {
+                callbackExecutor.execute(onCompactionDue);
+            }
+        });
+    }
+    
+    /**
+     * Queues a journal sync one interval from now if an append was left unforced
+     * Runs on the worker thread.
+     */
+    private void scheduleJournalSync() {
+        if (journalSyncScheduled || !FileHelper.isJournalSyncPending()) {
+            return;
+        }
+        journalSyncScheduled = true;
+        try {
+            worker.schedule(() -> {
+                journalSyncScheduled = false;
+                syncJournal();
+            }, FileHelper.JOURNAL_SYNC_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; shutdown() syncs after the queued work
+            journalSyncScheduled = false;
+        }
+    }
+    
+    private void syncJournal() {
+        try {
+            FileHelper.syncJournal();
+        } catch (IOException e) {
+            System.err.println("Persistence warning: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Finishes queued work, forces any unforced journal appends and stops the worker thread
+     * @param timeoutMillis How long to wait for queued work
+     */
+    public void shutdown(long timeoutMillis) {
+        if (!worker.isShutdown()) {
+            worker.execute(this::syncJournal);
+        }
+        worker.shutdown();
+        try {
+            if (!worker.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                System.err.println("Persistence warning: pending writes did not finish before exit");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,359 @@
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * SearchIndex.java
+ * Trigram inverted index over task descriptions for substring search.
+ *
+ * Every task gets a slot number while it is indexed (freed slots are
+ * reused), as in TaskBitmapIndex. Every lowercased description is broken
+ * into overlapping 3-character grams, and each gram maps to a sorted int
+ * array of the slots whose description contains it, so an indexed task
+ * costs four bytes per distinct gram. A query of 3+ characters intersects
+ * the arrays of its grams, rarest first, and only checks the slots left;
+ * shorter queries check every task. When a query extends the previous one,
+ * the previous result is narrowed instead of searched again.
+ *
+ * Results are bitsets over slots. A task is in at most one index at a time;
+ * it remembers its slot in Task.searchSlot.
+ */
+public class SearchIndex {
+    // Per slot: the task and the lowercased description it was indexed under
+    private Task[] tasks = new Task[64];
+    private String[] texts = new String[64];
+    private int slotCount = 0; // Slots ever handed out; free ones are in freeSlots
+    private int[] freeSlots = new int[16];
+    private int freeCount = 0;
+    
+    // Trigram (three chars packed into a long) -> slots containing it
+    private final Map<Long, Posting> postings = new HashMap<>();
+    
+    // Last query and its matches, kept in sync so refinements can narrow it
+    private String lastQuery = null;
+    private Matches lastResult = null;
+    
+    /**
+     * Adds a task to the index
+     */
+    public void add(Task task) {
+        if (slotOf(task) >= 0) {
+            update(task);
+            return;
+        }
+        int slot = allocateSlot();
+        String text = task.getDescription().toLowerCase();
+        task.searchSlot = slot;
+        tasks[slot] = task;
+        texts[slot] = text;
+        addGrams(slot, text);
+        
+        if (lastResult != null && text.contains(lastQuery)) {
+            lastResult.add(slot);
+        }
+    }
+    
+    /**
+     * Removes a task from the index
+     */
+    public void remove(Task task) {
+        int slot = slotOf(task);
+        if (slot < 0) {
+            return;
+        }
+        removeGrams(slot, texts[slot]);
+        tasks[slot] = null;
+        texts[slot] = null;
+        task.searchSlot = -1;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+        
+        if (lastResult != null) {
+            lastResult.remove(slot);
+        }
+    }
+    
+    /**
+     * Re-indexes a task after its description was edited
+     */
+    public void update(Task task) {
+        int slot = slotOf(task);
+        if (slot < 0) {
+            add(task);
+            return;
+        }
+        String newText = task.getDescription().toLowerCase();
+        if (texts[slot].equals(newText)) {
+            return;
+        }
+        
+        removeGrams(slot, texts[slot]);
+        texts[slot] = newText;
+        addGrams(slot, newText);
+        
+        if (lastResult != null) {
+            if (newText.contains(lastQuery)) {
+                lastResult.add(slot);
+            } else {
+                lastResult.remove(slot);
+            }
+        }
+    }
+    
+    /**
+     * Clears the index
+     */
+    public void clear() {
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (tasks[slot] != null) {
+                tasks[slot].searchSlot = -1;
+            }
+        }
+        tasks = new Task[64];
+        texts = new String[64];
+        slotCount = 0;
+        freeCount = 0;
+        postings.clear();
+        lastQuery = null;
+        lastResult = null;
+    }
+    
+    /**
+     * Finds all tasks whose description contains the query (case-insensitive)
+     * The result follows later edits until the next search.
+     * @param query Search text
+     * @return Matching tasks, or null when the query is empty (everything matches)
+     */
+    public Set<Task> search(String query) {
+        String q = query.toLowerCase();
+        if (q.isEmpty()) {
+            lastQuery = null;
+            lastResult = null;
+            return null;
+        }
+        
+        Matches result = new Matches();
+        if (lastResult != null && q.contains(lastQuery)) {
+            // Refinement: anything matching q also matched the previous query
+            for (int slot = lastResult.nextSlot(0); slot >= 0; slot = lastResult.nextSlot(slot + 1)) {
+                if (texts[slot].contains(q)) {
+                    result.add(slot);
+                }
+            }
+        } else if (q.length() < 3) {
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (texts[slot] != null && texts[slot].contains(q)) {
+                    result.add(slot);
+                }
+            }
+        } else {
+            for (int slot : candidates(q)) {
+                if (texts[slot].contains(q)) {
+                    result.add(slot);
+                }
+            }
+        }
+        
+        lastQuery = q;
+        lastResult = result;
+        return result;
+    }
+    
+    /**
+     * Returns the slots holding every gram of the query, in slot order
+     */
+    private int[] candidates(String q) {
+        Posting[] grams = new Posting[q.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = postings.get(gram(q, i));
+            if (grams[i] == null) {
+                return new int[0];
+            }
+        }
+        Arrays.sort(grams, Comparator.comparingInt(posting -> posting.size));
+        
+        // Narrow the rarest gram's slots by each of the others
+        int[] slots = Arrays.copyOf(grams[0].slots, grams[0].size);
+        int count = slots.length;
+        for (int g = 1; g < grams.length && count > 0; g++) {
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                if (grams[g].indexOf(slots[i]) >= 0) {
+                    slots[kept++] = slots[i];
+                }
+            }
+            count = kept;
+        }
+        return count == slots.length ? slots : Arrays.copyOf(slots, count);
+    }
+    
+    private void addGrams(int slot, String text) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            postings.computeIfAbsent(gram(text, i), k -> new Posting()).add(slot);
+        }
+    }
+    
+    private void removeGrams(int slot, String text) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            Long gram = gram(text, i);
+            Posting posting = postings.get(gram);
+            if (posting != null && posting.remove(slot) && posting.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+    
+    /**
+     * The task's slot in this index, or -1 if it is not indexed here
+     */
+    private int slotOf(Task task) {
+        int slot = task.searchSlot;
+        return slot >= 0 && slot < slotCount && tasks[slot] == task ? slot : -1;
+    }
+    
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        int slot = slotCount++;
+        if (slot == tasks.length) {
+            tasks = Arrays.copyOf(tasks, slot * 2);
+            texts = Arrays.copyOf(texts, slot * 2);
+        }
+        return slot;
+    }
+    
+    /**
+     * Packs the three chars starting at offset into one key
+     */
+    private static Long gram(String text, int offset) {
+        return ((long) text.charAt(offset) << 32)
+             | ((long) text.charAt(offset + 1) << 16)
+             | text.charAt(offset + 2);
+    }
+    
+    /**
+     * Sorted, duplicate-free slots of the tasks containing one gram
+     * New slots are mostly the highest so far, so adds are mostly appends.
+     */
+    private static class Posting {
+        int[] slots = new int[2];
+        int size = 0;
+        
+        int indexOf(int slot) {
+            return Arrays.binarySearch(slots, 0, size, slot);
+        }
+        
+        void add(int slot) {
+            int index = size > 0 && slots[size - 1] < slot ? -size - 1 : indexOf(slot);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            System.arraycopy(slots, index, slots, index + 1, size - index);
+            slots[index] = slot;
+            size++;
+        }
+        
+        boolean remove(int slot) {
+            int index = indexOf(slot);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(slots, index + 1, slots, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+    
+    /**
+     * A search result: a read-only set backed by a bitset over slots
+     */
+    private class Matches extends AbstractSet<Task> {
+        private long[] bits = new long[(tasks.length + 63) >>> 6];
+        private int count = 0;
+        
+        void add(int slot) {
+            int word = slot >>> 6;
+            if (word >= bits.length) {
+                bits = Arrays.copyOf(bits, Math.max(word + 1, bits.length * 2));
+            }
+            if ((bits[word] & (1L << slot)) == 0) {
+                bits[word] |= 1L << slot;
+                count++;
+            }
+        }
+        
+        void remove(int slot) {
+            int word = slot >>> 6;
+            if (word < bits.length && (bits[word] & (1L << slot)) != 0) {
+                bits[word] &= ~(1L << slot);
+                count--;
+            }
+        }
+        
+        /**
+         * The first matching slot at or after from, or -1
+         */
+        int nextSlot(int from) {
+            int word = from >>> 6;
+            if (word >= bits.length) {
+                return -1;
+            }
+            long remaining = bits[word] & (-1L << from);
+            while (remaining == 0) {
+                if (++word == bits.length) {
+                    return -1;
+                }
+                remaining = bits[word];
+            }
+            return (word << 6) + Long.numberOfTrailingZeros(remaining);
+        }
+        
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Task)) {
+                return false;
+            }
+            int slot = slotOf((Task) o);
+            return slot >= 0 && (slot >>> 6) < bits.length && (bits[slot >>> 6] & (1L << slot)) != 0;
+        }
+        
+        @Override
+        public int size() {
+            return count;
+        }
+        
+        @Override
+        public Iterator<Task> iterator() {
+            return new Iterator<Task>() {
+                private int next = nextSlot(0);
+                
+                @Override
+                public boolean hasNext() {
+                    return next >= 0;
+                }
+                
+                @Override
+                public Task next() {
+                    if (next < 0) {
+                        throw new NoSuchElementException();
+                    }
+                    Task task = tasks[next];
+                    next = nextSlot(next + 1);
+                    return task;
+                }
+            };
+        }
+    }
+}
@@ -1,24 +1,68 @@
 import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Settings.java
  * Manages application settings and preferences
+ *
+ * Values are parsed once when loaded and kept as typed fields, so getters
+ * are plain reads. Setters only update memory and schedule a write-behind
+ * flush: changes arriving within FLUSH_DELAY_MS of each other are written
+ * together, on a background thread, to a temporary file that then replaces
+ * settings.properties atomically. Call flush() before exiting.
  */
 public class Settings {
     private static final String SETTINGS_FILE = "settings.properties";
+    private static final String TEMP_FILE = SETTINGS_FILE + ".tmp";
+    public static final long FLUSH_DELAY_MS = 500;
     private static Properties properties = new Properties();
+    private static volatile File directory = null;
     
     // Setting keys
     private static final String KEY_THEME = "theme";
     private static final String KEY_NOTIFICATIONS = "notifications_enabled";
+    private static final String KEY_SYNC_POLICY = "sync_policy";
+    private static final String KEY_BACKUP_COUNT = "backup_count";
+    
+    // Typed values, resolved from properties on load and updated by the setters
+    private static volatile Theme theme = Theme.OCEAN;
+    private static volatile boolean notificationsEnabled = true;
+    private static volatile FileHelper.SyncPolicy syncPolicy = FileHelper.SyncPolicy.BATCHED;
+    private static volatile int backupCount = 2;
+    
+    // Write-behind state, guarded by Settings.class
+    private static boolean dirty = false;
+    private static boolean flushScheduled = false;
+    
+    // Serializes writes so an older copy never lands after a newer one
+    private static final Object WRITE_LOCK = new Object();
+    
+    private static final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "settings-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    /**
+     * Sets the folder settings.properties lives in
+     * @param folder The folder, or null for the working directory
+     */
+    public static void setDirectory(File folder) {
+        directory = folder;
+    }
     
     /**
      * Loads settings from file
      */
-    public static void load() {
+    public static synchronized void load() {
         try {
-            File file = new File(SETTINGS_FILE);
+            File file = new File(directory, SETTINGS_FILE);
             if (file.exists()) {
                 FileInputStream fis = new FileInputStream(file);
                 properties.load(fis);
@@ -31,18 +75,56 @@ public class Settings {
             System.err.println("Error loading settings: " + e.getMessage());
             setDefaultSettings();
         }
+        resolve();
+    }
+    
+    /**
+     * Writes pending changes now, on the caller's thread
+     */
+    public static void flush() {
+        synchronized (WRITE_LOCK) {
+            Properties snapshot;
+            synchronized (Settings.class) {
+                if (!dirty) {
+                    return;
+                }
+                snapshot = (Properties) properties.clone();
+                dirty = false;
+            }
+            save(snapshot);
+        }
     }
     
     /**
-     * Saves settings to file
+     * Saves settings to a temporary file and moves it over the settings file
      */
-    public static void save() {
+    private static void save(Properties snapshot) {
+        File temp = new File(directory, TEMP_FILE);
+        File target = new File(directory, SETTINGS_FILE);
+        FileOutputStream fos = null;
         try {
-            FileOutputStream fos = new FileOutputStream(SETTINGS_FILE);
-            properties.store(fos, "Student Task Manager Settings");
+            fos = new FileOutputStream(temp);
+            snapshot.store(fos, "Student Task Manager Settings");
+            fos.getChannel().force(true);
             fos.close();
+            fos = null;
+            
+            try {
+                Files.move(temp.toPath(), target.toPath(),
+                           StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
         } catch (IOException e) {
             System.err.println("Error saving settings: " + e.getMessage());
+        } finally {
+            if (fos != null) {
+                try {
+                    fos.close();
+                } catch (IOException e) {
+                    System.err.println("Error closing settings file: " + e.getMessage());
+                }
+            }
         }
     }
     
@@ -52,27 +134,80 @@ public class Settings {
     private static void setDefaultSettings() {
         properties.setProperty(KEY_THEME, Theme.OCEAN.getName());
         properties.setProperty(KEY_NOTIFICATIONS, "true");
+        properties.setProperty(KEY_SYNC_POLICY, FileHelper.SyncPolicy.BATCHED.name());
+        properties.setProperty(KEY_BACKUP_COUNT, "2");
+    }
+    
+    /**
+     * Parses every setting into its typed field
+     */
+    private static void resolve() {
+        theme = Theme.getThemeByName(properties.getProperty(KEY_THEME, Theme.OCEAN.getName()));
+        notificationsEnabled = Boolean.parseBoolean(properties.getProperty(KEY_NOTIFICATIONS, "true"));
+        
+        String policy = properties.getProperty(KEY_SYNC_POLICY, FileHelper.SyncPolicy.BATCHED.name());
+        try {
+            syncPolicy = FileHelper.SyncPolicy.valueOf(policy.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown " + KEY_SYNC_POLICY + " '" + policy + "', using BATCHED");
+            syncPolicy = FileHelper.SyncPolicy.BATCHED;
+        }
+        
+        String backups = properties.getProperty(KEY_BACKUP_COUNT, "2");
+        try {
+            backupCount = Math.max(0, Integer.parseInt(backups.trim()));
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid " + KEY_BACKUP_COUNT + " '" + backups + "', using 2");
+            backupCount = 2;
+        }
+    }
+    
+    /**
+     * Stores a changed value and schedules a flush unless one is already coming
+     */
+    private static synchronized void set(String key, String value) {
+        if (value.equals(properties.getProperty(key))) {
+            return;
+        }
+        properties.setProperty(key, value);
+        dirty = true;
+        if (!flushScheduled) {
+            flushScheduled = true;
+            writer.schedule(() -> {
+                synchronized (Settings.class) {
+                    flushScheduled = false;
+                }
+                flush();
+            }, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
     }
     
     // Theme settings
     public static Theme getTheme() {
-        String themeName = properties.getProperty(KEY_THEME, Theme.OCEAN.getName());
-        return Theme.getThemeByName(themeName);
+        return theme;
     }
     
-    public static void setTheme(Theme theme) {
-        properties.setProperty(KEY_THEME, theme.getName());
-        save();
+    public static synchronized void setTheme(Theme theme) {
+        Settings.theme = theme;
+        set(KEY_THEME, theme.getName());
     }
     
     // Notification settings
     public static boolean areNotificationsEnabled() {
-        return Boolean.parseBoolean(properties.getProperty(KEY_NOTIFICATIONS, "true"));
+        return notificationsEnabled;
+    }
+    
+    public static synchronized void setNotificationsEnabled(boolean enabled) {
+        notificationsEnabled = enabled;
+        set(KEY_NOTIFICATIONS, String.valueOf(enabled));
+    }
+    
+    // Durability settings (edited in settings.properties)
+    public static FileHelper.SyncPolicy getSyncPolicy() {
+        return syncPolicy;
     }
     
-    public static void setNotificationsEnabled(boolean enabled) {
-        properties.setProperty(KEY_NOTIFICATIONS, String.valueOf(enabled));
-        save();
+    public static int getBackupCount() {
+        return backupCount;
     }
 }
-
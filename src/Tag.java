@@ -0,0 +1,136 @@
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tag.java
+ * Interned task tags with compact integer ids.
+ *
+ * Every distinct tag name maps to exactly one Tag. The built-in tags get
+ * ids 0..7 in Task.ALL_TAGS order; user-defined tags are added the first
+ * time they are seen and numbered from there. Colors and the badge style
+ * class are worked out once per tag, so tasks only hold a shared reference and
+ * filtering or coloring by tag is an integer comparison or array lookup.
+ *
+ * Lookups are lock-free; adding a tag is synchronized, since files are
+ * parsed on several threads.
+ */
+public class Tag {
+    // Colors handed out to user-defined tags, picked by name so they stay stable across runs
+    private static final String[] CUSTOM_COLORS = {
+        "#0ea5e9", "#14b8a6", "#84cc16", "#eab308", "#f97316", "#d946ef", "#6366f1", "#64748b"
+    };
+    
+    private static final ConcurrentHashMap<String, Tag> byName = new ConcurrentHashMap<>();
+    private static volatile Tag[] byId = new Tag[0];
+    
+    // Built-in tags, in Task.ALL_TAGS order
+    public static final Tag NONE = define(Task.TAG_NONE, "#9ca3af"); // Light gray
+    public static final Tag SCHOOL = define(Task.TAG_SCHOOL, "#3b82f6"); // Blue
+    public static final Tag PERSONAL = define(Task.TAG_PERSONAL, "#8b5cf6"); // Purple
+    public static final Tag WORK = define(Task.TAG_WORK, "#f59e0b"); // Orange
+    public static final Tag URGENT = define(Task.TAG_URGENT, "#ef4444"); // Red
+    public static final Tag HEALTH = define(Task.TAG_HEALTH, "#10b981"); // Green
+    public static final Tag SHOPPING = define(Task.TAG_SHOPPING, "#ec4899"); // Pink
+    public static final Tag OTHER = define(Task.TAG_OTHER, "#6b7280"); // Gray
+    
+    public static final int BUILT_IN_COUNT = 8;
+    
+    private final int id;
+    private final String name;
+    private final String color;
+    private final String styleClass; // Badge colors, defined in app.css
+    
+    private Tag(int id, String name, String color, String styleClass) {
+        this.id = id;
+        this.name = name;
+        this.color = color;
+        this.styleClass = styleClass;
+    }
+    
+    // Getters
+    public int getId() { return id; }
+    public String getName() { return name; }
+    public String getColor() { return color; }
+    public String getStyleClass() { return styleClass; }
+    
+    public boolean isBuiltIn() {
+        return id < BUILT_IN_COUNT;
+    }
+    
+    @Override
+    public String toString() {
+        return name;
+    }
+    
+    /**
+     * Gets the tag with this name, adding it as a user-defined tag if it is new
+     * @param name Tag name; null means no tag
+     */
+    public static Tag of(String name) {
+        if (name == null) {
+            return NONE;
+        }
+        Tag tag = byName.get(name);
+        if (tag != null) {
+            return tag;
+        }
+        int color = (name.hashCode() & Integer.MAX_VALUE) % CUSTOM_COLORS.length;
+        return define(name, CUSTOM_COLORS[color], "tag-custom-" + color);
+    }
+    
+    /**
+     * Gets the tag named by s[start, end) without copying the name for built-in tags
+     */
+    public static Tag of(String s, int start, int end) {
+        Tag[] tags = byId;
+        for (int i = 0; i < BUILT_IN_COUNT; i++) {
+            Tag tag = tags[i];
+            String name = tag.name;
+            if (name.length() == end - start && s.regionMatches(start, name, 0, name.length())) {
+                return tag;
+            }
+        }
+        return of(s.substring(start, end));
+    }
+    
+    /**
+     * Gets the tag with this name without adding it
+     * @return The tag, or null if no task has used that name
+     */
+    public static Tag find(String name) {
+        return name != null ? byName.get(name) : null;
+    }
+    
+    /**
+     * Gets a tag by id
+     * @throws IndexOutOfBoundsException if no tag has that id
+     */
+    public static Tag byId(int id) {
+        return byId[id];
+    }
+    
+    /**
+     * Number of tags defined so far; ids run from 0 to count() - 1
+     */
+    public static int count() {
+        return byId.length;
+    }
+    
+    private static Tag define(String name, String color) {
+        return define(name, color, "tag-" + name.toLowerCase());
+    }
+    
+    private static synchronized Tag define(String name, String color, String styleClass) {
+        Tag existing = byName.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        Tag[] tags = byId;
+        Tag tag = new Tag(tags.length, name, color, styleClass);
+        Tag[] grown = Arrays.copyOf(tags, tags.length + 1);
+        grown[tag.id] = tag;
+        byId = grown;
+        byName.put(name, tag);
+        return tag;
+    }
+}
@@ -1,5 +1,7 @@
+import java.time.DateTimeException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Objects;
 import java.util.UUID;
 
 /**
@@ -12,9 +14,15 @@ public class Task {
     private LocalDateTime createdAt;
     private boolean completed;
     private LocalDateTime completedAt;
-    private String tag;
+    private Tag tag;
     private LocalDateTime dueDate;
     private int displayOrder; // For drag & drop ordering
+    private LocalDateTime modifiedAt; // Last edit to the task's content, for merging imports
+    private TaskListener listener; // Notified by setters; set by whoever holds the task
+    private int version; // Bumped on every change, so views can tell cached renderings are stale
+    int snapshotRow = -1; // Row in TaskRepository's columnar snapshot base, -1 if changed since
+    int bitmapSlot = -1; // Slot in TaskBitmapIndex while the task is indexed
+    int searchSlot = -1; // Slot in SearchIndex while the task is indexed
     
     // Formatter for displaying timestamps
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
@@ -34,6 +42,14 @@ public class Task {
         TAG_URGENT, TAG_HEALTH, TAG_SHOPPING, TAG_OTHER
     };
     
+    // Property names passed to TaskListener
+    public static final String PROP_DESCRIPTION = "description";
+    public static final String PROP_COMPLETED = "completed";
+    public static final String PROP_TAG = "tag";
+    public static final String PROP_DUE_DATE = "dueDate";
+    public static final String PROP_DISPLAY_ORDER = "displayOrder";
+    public static final String PROP_MODIFIED_AT = "modifiedAt";
+    
     /**
      * Constructor - creates a new task with current timestamp
      * @param description The task description
@@ -44,24 +60,45 @@ public class Task {
         this.createdAt = LocalDateTime.now();
         this.completed = false;
         this.completedAt = null;
-        this.tag = TAG_NONE;
+        this.tag = Tag.NONE;
         this.dueDate = null;
         this.displayOrder = 0;
+        this.modifiedAt = createdAt.withNano(0);
     }
     
     /**
      * Full constructor - used when loading from file
+     * The modification time is taken to be the later of creation and completion.
      */
     public Task(String id, String description, LocalDateTime createdAt, boolean completed, 
                 LocalDateTime completedAt, String tag, LocalDateTime dueDate, int displayOrder) {
+        this(id, description, createdAt, completed, completedAt, Tag.of(tag), dueDate, displayOrder, null);
+    }
+    
+    /**
+     * Full constructor with the modification time (null to derive it as above)
+     */
+    public Task(String id, String description, LocalDateTime createdAt, boolean completed, 
+                LocalDateTime completedAt, String tag, LocalDateTime dueDate, int displayOrder,
+                LocalDateTime modifiedAt) {
+        this(id, description, createdAt, completed, completedAt, Tag.of(tag), dueDate, displayOrder, modifiedAt);
+    }
+    
+    private Task(String id, String description, LocalDateTime createdAt, boolean completed, 
+                 LocalDateTime completedAt, Tag tag, LocalDateTime dueDate, int displayOrder,
+                 LocalDateTime modifiedAt) {
         this.id = id;
         this.description = description;
         this.createdAt = createdAt;
         this.completed = completed;
         this.completedAt = completedAt;
-        this.tag = tag != null ? tag : TAG_NONE;
+        this.tag = tag;
         this.dueDate = dueDate;
         this.displayOrder = displayOrder;
+        if (modifiedAt == null) {
+            modifiedAt = completedAt != null && createdAt != null && completedAt.isAfter(createdAt) ? completedAt : createdAt;
+        }
+        this.modifiedAt = modifiedAt;
     }
     
     // Getters and Setters
@@ -74,7 +111,9 @@ public class Task {
     }
     
     public void setDescription(String description) {
+        String oldValue = this.description;
         this.description = description;
+        fireChanged(PROP_DESCRIPTION, oldValue, description);
     }
     
     public LocalDateTime getCreatedAt() {
@@ -86,12 +125,14 @@ public class Task {
     }
     
     public void setCompleted(boolean completed) {
+        boolean oldValue = this.completed;
         this.completed = completed;
         if (completed && this.completedAt == null) {
             this.completedAt = LocalDateTime.now();
         } else if (!completed) {
             this.completedAt = null;
         }
+        fireChanged(PROP_COMPLETED, oldValue, completed);
     }
     
     public LocalDateTime getCompletedAt() {
@@ -99,11 +140,20 @@ public class Task {
     }
     
     public String getTag() {
-        return tag;
+        return tag.getName();
+    }
+    
+    /**
+     * The tag's interned id (see Tag), for comparing tags without strings
+     */
+    public int getTagId() {
+        return tag.getId();
     }
     
     public void setTag(String tag) {
-        this.tag = tag;
+        String oldValue = this.tag.getName();
+        this.tag = Tag.of(tag);
+        fireChanged(PROP_TAG, oldValue, this.tag.getName());
     }
     
     public LocalDateTime getDueDate() {
@@ -111,7 +161,9 @@ public class Task {
     }
     
     public void setDueDate(LocalDateTime dueDate) {
+        LocalDateTime oldValue = this.dueDate;
         this.dueDate = dueDate;
+        fireChanged(PROP_DUE_DATE, oldValue, dueDate);
     }
     
     public int getDisplayOrder() {
@@ -119,7 +171,75 @@ public class Task {
     }
     
     public void setDisplayOrder(int displayOrder) {
+        int oldValue = this.displayOrder;
         this.displayOrder = displayOrder;
+        fireChanged(PROP_DISPLAY_ORDER, oldValue, displayOrder);
+    }
+    
+    /**
+     * When the task's content was last edited
+     * Display order changes don't count, since they are local to one list.
+     */
+    public LocalDateTime getModifiedAt() {
+        return modifiedAt;
+    }
+    
+    /**
+     * Takes over the content of another copy of this task (e.g. an imported one),
+     * keeping id, creation time and display order. Listeners hear the usual event
+     * per changed field, then PROP_MODIFIED_AT as the timestamp is taken over too.
+     * @return false if the content was already the same; nothing is changed then
+     */
+    public boolean mergeFrom(Task other) {
+        LocalDateTime oldModifiedAt = modifiedAt;
+        int oldVersion = version;
+        setDescription(other.description);
+        setTag(other.tag.getName());
+        setDueDate(other.dueDate);
+        if (completed != other.completed) {
+            setCompleted(other.completed);
+        }
+        if (version == oldVersion && Objects.equals(completedAt, other.completedAt)) {
+            return false;
+        }
+        completedAt = other.completedAt;
+        modifiedAt = other.modifiedAt;
+        version++;
+        if (listener != null) {
+            listener.taskChanged(this, PROP_MODIFIED_AT, oldModifiedAt, modifiedAt);
+        }
+        return true;
+    }
+    
+    /**
+     * Sets the listener notified when this task changes (null to detach)
+     */
+    public void setListener(TaskListener listener) {
+        this.listener = listener;
+    }
+    
+    /**
+     * Counts changes to this task; differs whenever any field changed
+     */
+    public int getVersion() {
+        return version;
+    }
+    
+    /**
+     * Bumps the version and notifies the listener if the value actually changed
+     */
+    private void fireChanged(String property, Object oldValue, Object newValue) {
+        if (Objects.equals(oldValue, newValue)) {
+            return;
+        }
+        version++;
+        if (!PROP_DISPLAY_ORDER.equals(property)) {
+            // Whole seconds, like every stored timestamp, so a saved task compares equal to itself
+            modifiedAt = LocalDateTime.now().withNano(0);
+        }
+        if (listener != null) {
+            listener.taskChanged(this, property, oldValue, newValue);
+        }
     }
     
     /**
@@ -159,9 +279,17 @@ public class Task {
         return description;
     }
     
+    /**
+     * Returns a detached copy with the same id and values
+     * The copy has no listener, so it can be handed to other threads.
+     */
+    public Task copy() {
+        return new Task(id, description, createdAt, completed, completedAt, tag, dueDate, displayOrder, modifiedAt);
+    }
+    
     /**
      * Returns formatted string for file storage
-     * Format: id|description|createdAt|completed|completedAt|tag|dueDate|displayOrder
+     * Format: id|description|createdAt|completed|completedAt|tag|dueDate|displayOrder|modifiedAt
      */
     public String toFileString() {
         StringBuilder sb = new StringBuilder();
@@ -170,51 +298,80 @@ public class Task {
         sb.append(createdAt.format(FORMATTER)).append("|");
         sb.append(completed).append("|");
         sb.append(completedAt != null ? completedAt.format(FORMATTER) : "null").append("|");
-        sb.append(tag).append("|");
+        sb.append(tag.getName()).append("|");
         sb.append(dueDate != null ? dueDate.format(FORMATTER) : "null").append("|");
-        sb.append(displayOrder);
+        sb.append(displayOrder).append("|");
+        sb.append(modifiedAt.format(FORMATTER));
         return sb.toString();
     }
     
     /**
      * Creates a Task from a file string with backward compatibility
+     * Fields are located in a single pass over the line instead of split(),
+     * so the only strings allocated are the id, description and tag.
      */
     public static Task fromFileString(String fileString) {
         try {
-            String[] parts = fileString.split("\\|");
+            // Field boundaries for the first 9 fields: field i spans [starts[i], ends[i])
+            int[] starts = new int[9];
+            int[] ends = new int[9];
+            int fieldCount = 0;
+            int lastNonEmpty = -1;
+            int fieldStart = 0;
+            int length = fileString.length();
             
-            // New format with tags and due dates: id|description|createdAt|completed|completedAt|tag|dueDate|displayOrder
-            if (parts.length >= 8) {
-                String id = parts[0];
-                String desc = parts[1];
-                LocalDateTime createdAt = LocalDateTime.parse(parts[2], FORMATTER);
-                boolean completed = Boolean.parseBoolean(parts[3]);
-                LocalDateTime completedAt = parts[4].equals("null") ? null : LocalDateTime.parse(parts[4], FORMATTER);
-                String tag = parts[5];
-                LocalDateTime dueDate = parts[6].equals("null") ? null : LocalDateTime.parse(parts[6], FORMATTER);
-                int displayOrder = Integer.parseInt(parts[7]);
-                return new Task(id, desc, createdAt, completed, completedAt, tag, dueDate, displayOrder);
+            for (int i = 0; i <= length; i++) {
+                if (i == length || fileString.charAt(i) == '|') {
+                    if (fieldCount < 9) {
+                        starts[fieldCount] = fieldStart;
+                        ends[fieldCount] = i;
+                    }
+                    if (i > fieldStart) {
+                        lastNonEmpty = fieldCount;
+                    }
+                    fieldCount++;
+                    fieldStart = i + 1;
+                }
+            }
+            
+            // Match String.split(): trailing empty fields are dropped, an empty line is one field
+            int parts = length == 0 ? 1 : lastNonEmpty + 1;
+            
+            // New format with tags and due dates: id|description|createdAt|completed|completedAt|tag|dueDate|displayOrder[|modifiedAt]
+            if (parts >= 8) {
+                String id = fileString.substring(starts[0], ends[0]);
+                String desc = fileString.substring(starts[1], ends[1]);
+                LocalDateTime createdAt = parseTimestamp(fileString, starts[2], ends[2]);
+                boolean completed = parseBoolean(fileString, starts[3], ends[3]);
+                LocalDateTime completedAt = isNull(fileString, starts[4], ends[4]) ? null : parseTimestamp(fileString, starts[4], ends[4]);
+                Tag tag = Tag.of(fileString, starts[5], ends[5]);
+                LocalDateTime dueDate = isNull(fileString, starts[6], ends[6]) ? null : parseTimestamp(fileString, starts[6], ends[6]);
+                int displayOrder = Integer.parseInt(fileString, starts[7], ends[7], 10);
+                // Files written before modification times were kept have 8 fields
+                LocalDateTime modifiedAt = parts >= 9 ? parseTimestamp(fileString, starts[8], ends[8]) : null;
+                return new Task(id, desc, createdAt, completed, completedAt, tag, dueDate, displayOrder, modifiedAt);
             }
             // Old format: id|description|createdAt|completed|completedAt
-            else if (parts.length >= 5) {
-                String id = parts[0];
-                String desc = parts[1];
-                LocalDateTime createdAt = LocalDateTime.parse(parts[2], FORMATTER);
-                boolean completed = Boolean.parseBoolean(parts[3]);
-                LocalDateTime completedAt = parts[4].equals("null") ? null : LocalDateTime.parse(parts[4], FORMATTER);
+            else if (parts >= 5) {
+                String id = fileString.substring(starts[0], ends[0]);
+                String desc = fileString.substring(starts[1], ends[1]);
+                LocalDateTime createdAt = parseTimestamp(fileString, starts[2], ends[2]);
+                boolean completed = parseBoolean(fileString, starts[3], ends[3]);
+                LocalDateTime completedAt = isNull(fileString, starts[4], ends[4]) ? null : parseTimestamp(fileString, starts[4], ends[4]);
                 return new Task(id, desc, createdAt, completed, completedAt, TAG_NONE, null, 0);
             }
             // Very old format: description|timestamp
-            else if (parts.length >= 2) {
-                String desc = parts[0];
-                LocalDateTime timestamp = LocalDateTime.parse(parts[1], FORMATTER);
+            else if (parts >= 2) {
+                String desc = fileString.substring(starts[0], ends[0]);
+                LocalDateTime timestamp = parseTimestamp(fileString, starts[1], ends[1]);
                 Task task = new Task(desc);
                 task.createdAt = timestamp;
+                task.modifiedAt = timestamp;
                 return task;
             }
             // Ancient format: just description
-            else if (parts.length == 1) {
-                return new Task(parts[0]);
+            else if (parts == 1) {
+                return new Task(fileString.substring(starts[0], ends[0]));
             }
         } catch (Exception e) {
             System.err.println("Error parsing task: " + e.getMessage());
@@ -223,19 +380,67 @@ public class Task {
         return null;
     }
     
+    /**
+     * Parses a yyyy-MM-dd HH:mm:ss timestamp in place without the formatter machinery
+     * Anything that doesn't fit the fixed layout goes through FORMATTER, so errors
+     * and lenient resolution stay exactly as before.
+     */
+    private static LocalDateTime parseTimestamp(String s, int start, int end) {
+        if (end - start == 19
+                && s.charAt(start + 4) == '-' && s.charAt(start + 7) == '-'
+                && s.charAt(start + 10) == ' '
+                && s.charAt(start + 13) == ':' && s.charAt(start + 16) == ':') {
+            int year = parseDigits(s, start, 4);
+            int month = parseDigits(s, start + 5, 2);
+            int day = parseDigits(s, start + 8, 2);
+            int hour = parseDigits(s, start + 11, 2);
+            int minute = parseDigits(s, start + 14, 2);
+            int second = parseDigits(s, start + 17, 2);
+            
+            if ((year | month | day | hour | minute | second) >= 0) {
+                try {
+                    return LocalDateTime.of(year, month, day, hour, minute, second);
+                } catch (DateTimeException e) {
+                    // Out-of-range values: let the formatter resolve or reject them
+                }
+            }
+        }
+        return LocalDateTime.parse(s.substring(start, end), FORMATTER);
+    }
+    
+    /**
+     * Parses a run of ASCII digits, returning -1 if any character is not a digit
+     */
+    private static int parseDigits(String s, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = s.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+    
+    /**
+     * Same result as Boolean.parseBoolean on the field, without the substring
+     */
+    private static boolean parseBoolean(String s, int start, int end) {
+        return end - start == 4 && s.regionMatches(true, start, "true", 0, 4);
+    }
+    
+    /**
+     * Checks for the "null" placeholder used for missing dates
+     */
+    private static boolean isNull(String s, int start, int end) {
+        return end - start == 4 && s.regionMatches(start, "null", 0, 4);
+    }
+    
     /**
      * Gets the color for this task's tag
      */
     public String getTagColor() {
-        switch (tag) {
-            case TAG_SCHOOL: return "#3b82f6"; // Blue
-            case TAG_PERSONAL: return "#8b5cf6"; // Purple
-            case TAG_WORK: return "#f59e0b"; // Orange
-            case TAG_URGENT: return "#ef4444"; // Red
-            case TAG_HEALTH: return "#10b981"; // Green
-            case TAG_SHOPPING: return "#ec4899"; // Pink
-            case TAG_OTHER: return "#6b7280"; // Gray
-            default: return "#9ca3af"; // Light gray
-        }
+        return tag.getColor();
     }
 }
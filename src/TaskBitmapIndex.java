@@ -0,0 +1,269 @@
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * TaskBitmapIndex.java
+ * Bitset indexes over tasks for tag, completion and due-date queries.
+ *
+ * Every task gets a slot number while it is in the collection (freed slots
+ * are reused). Per slot there is one bit in each of:
+ *   a bitmap per tag id (see Tag)
+ *   the completed bitmap
+ *   one bitmap per due bucket: overdue, due soon, later, no due date
+ * so a question like "School AND pending AND overdue" is a word-by-word AND
+ * over plain long[] bitsets. Plain counts come from TaskStatistics, and the
+ * tag filter compares Task.getTagId, both already constant time per task.
+ *
+ * Due buckets follow Task.isOverdue / isDueSoon but ignore completion, so
+ * combine them with pending. They are re-bucketed lazily: the index knows
+ * the earliest moment any task changes bucket and only rescans its due
+ * dates (a primitive array) once a query comes after that moment.
+ *
+ * The owner reports added and removed tasks and forwards TaskListener
+ * events. Methods are synchronized like TaskStatistics.
+ */
+public class TaskBitmapIndex implements TaskListener {
+    /**
+     * Due-date buckets, as of the time of the query
+     */
+    public enum Due { OVERDUE, DUE_SOON, LATER, NONE }
+    
+    private static final long NO_DUE = Long.MIN_VALUE;
+    private static final long DUE_SOON_MILLIS = 24L * 60 * 60 * 1000;
+    
+    // Per slot
+    private Task[] tasks = new Task[64];
+    private int[] tagIds = new int[64];
+    private long[] dueMillis = new long[64];
+    private int slotCount = 0; // Slots ever handed out; free ones are in freeSlots
+    private int[] freeSlots = new int[16];
+    private int freeCount = 0;
+    
+    // Bitsets over slots, all of the same length
+    private long[] live = new long[1];
+    private long[] completed = new long[1];
+    private long[][] tagBits = new long[0][];
+    private final long[][] dueBits = new long[Due.values().length][1];
+    
+    // Buckets are correct until the clock passes nextBoundary
+    private long bucketedAt = Long.MIN_VALUE;
+    private long nextBoundary = Long.MAX_VALUE;
+    
+    /**
+     * Indexes a task that joined the collection
+     */
+    public synchronized void taskAdded(Task task) {
+        int slot = allocateSlot();
+        task.bitmapSlot = slot;
+        tasks[slot] = task;
+        set(live, slot);
+        if (task.isCompleted()) {
+            set(completed, slot);
+        }
+        tagIds[slot] = task.getTagId();
+        set(tagBitsFor(tagIds[slot]), slot);
+        dueMillis[slot] = toMillis(task.getDueDate());
+        set(dueBits[bucketOf(dueMillis[slot])], slot);
+    }
+    
+    /**
+     * Drops a task that left the collection
+     */
+    public synchronized void taskRemoved(Task task) {
+        int slot = task.bitmapSlot;
+        if (slot < 0 || slot >= slotCount || tasks[slot] != task) {
+            return;
+        }
+        clear(live, slot);
+        clear(completed, slot);
+        clear(tagBits[tagIds[slot]], slot);
+        for (long[] bits : dueBits) {
+            clear(bits, slot);
+        }
+        tasks[slot] = null;
+        task.bitmapSlot = -1;
+        
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+    
+    /**
+     * Moves a task's bits after it was edited in place
+     */
+    @Override
+    public synchronized void taskChanged(Task task, String property, Object oldValue, Object newValue) {
+        int slot = task.bitmapSlot;
+        if (slot < 0 || slot >= slotCount || tasks[slot] != task) {
+            return;
+        }
+        switch (property) {
+            case Task.PROP_COMPLETED:
+                if (task.isCompleted()) {
+                    set(completed, slot);
+                } else {
+                    clear(completed, slot);
+                }
+                break;
+            case Task.PROP_TAG:
+                clear(tagBits[tagIds[slot]], slot);
+                tagIds[slot] = task.getTagId();
+                set(tagBitsFor(tagIds[slot]), slot);
+                break;
+            case Task.PROP_DUE_DATE:
+                for (long[] bits : dueBits) {
+                    clear(bits, slot);
+                }
+                dueMillis[slot] = toMillis(task.getDueDate());
+                set(dueBits[bucketOf(dueMillis[slot])], slot);
+                break;
+            default:
+                // Description, display order and modification time aren't indexed
+                break;
+        }
+    }
+    
+    /**
+     * Lists the tasks matching every given condition, in no particular order
+     * @param tag Tag to match, or null for any
+     * @param completed true for completed, false for pending, null for either
+     * @param due Due bucket to match, or null for any
+     */
+    public synchronized List<Task> find(Tag tag, Boolean completed, Due due) {
+        refreshBuckets();
+        long[] tagWords = tag == null ? null : tagWords(tag);
+        long[] dueWords = due == null ? null : dueBits[due.ordinal()];
+        List<Task> found = new ArrayList<>();
+        for (int i = 0; i < live.length; i++) {
+            long word = match(i, tagWords, completed, dueWords);
+            while (word != 0) {
+                found.add(tasks[(i << 6) + Long.numberOfTrailingZeros(word)]);
+                word &= word - 1;
+            }
+        }
+        return found;
+    }
+    
+    /**
+     * ANDs one word of every requested bitset
+     */
+    private long match(int i, long[] tagWords, Boolean completedWanted, long[] dueWords) {
+        long word = live[i];
+        if (tagWords != null) {
+            word &= tagWords[i];
+        }
+        if (completedWanted != null) {
+            word &= completedWanted ? completed[i] : ~completed[i];
+        }
+        if (dueWords != null) {
+            word &= dueWords[i];
+        }
+        return word;
+    }
+    
+    /**
+     * The bitset of a tag, or an empty one for a tag no task has had yet
+     */
+    private long[] tagWords(Tag tag) {
+        int id = tag.getId();
+        return id < tagBits.length && tagBits[id] != null ? tagBits[id] : new long[live.length];
+    }
+    
+    private long[] tagBitsFor(int tagId) {
+        if (tagId >= tagBits.length) {
+            tagBits = Arrays.copyOf(tagBits, Math.max(Tag.count(), tagId + 1));
+        }
+        if (tagBits[tagId] == null) {
+            tagBits[tagId] = new long[live.length];
+        }
+        return tagBits[tagId];
+    }
+    
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        int slot = slotCount++;
+        if (slot == tasks.length) {
+            int capacity = tasks.length * 2;
+            tasks = Arrays.copyOf(tasks, capacity);
+            tagIds = Arrays.copyOf(tagIds, capacity);
+            dueMillis = Arrays.copyOf(dueMillis, capacity);
+        }
+        int words = (slot >>> 6) + 1;
+        if (words > live.length) {
+            live = Arrays.copyOf(live, words * 2);
+            completed = Arrays.copyOf(completed, live.length);
+            for (int i = 0; i < tagBits.length; i++) {
+                if (tagBits[i] != null) {
+                    tagBits[i] = Arrays.copyOf(tagBits[i], live.length);
+                }
+            }
+            for (int i = 0; i < dueBits.length; i++) {
+                dueBits[i] = Arrays.copyOf(dueBits[i], live.length);
+            }
+        }
+        return slot;
+    }
+    
+    /**
+     * Works out a due date's bucket as of bucketedAt, and when it will next change
+     */
+    private int bucketOf(long due) {
+        if (due == NO_DUE) {
+            return Due.NONE.ordinal();
+        }
+        // Same rules as Task.isOverdue / isDueSoon: a task changes bucket once
+        // the clock is past due - 24h, and again once it is past due
+        if (bucketedAt > due) {
+            return Due.OVERDUE.ordinal();
+        }
+        nextBoundary = Math.min(nextBoundary, due);
+        if (bucketedAt < due && bucketedAt + DUE_SOON_MILLIS > due) {
+            return Due.DUE_SOON.ordinal();
+        }
+        if (bucketedAt < due) {
+            nextBoundary = Math.min(nextBoundary, due - DUE_SOON_MILLIS);
+        }
+        return Due.LATER.ordinal();
+    }
+    
+    /**
+     * Re-buckets every due date if some task's bucket may have changed
+     */
+    private void refreshBuckets() {
+        long now = toMillis(LocalDateTime.now());
+        if (now <= nextBoundary && bucketedAt != Long.MIN_VALUE) {
+            return;
+        }
+        bucketedAt = now;
+        nextBoundary = Long.MAX_VALUE;
+        for (long[] bits : dueBits) {
+            Arrays.fill(bits, 0);
+        }
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (tasks[slot] != null) {
+                set(dueBits[bucketOf(dueMillis[slot])], slot);
+            }
+        }
+    }
+    
+    private static void set(long[] bits, int slot) {
+        bits[slot >>> 6] |= 1L << slot;
+    }
+    
+    private static void clear(long[] bits, int slot) {
+        bits[slot >>> 6] &= ~(1L << slot);
+    }
+    
+    private static long toMillis(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return NO_DUE;
+        }
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1000 + dateTime.getNano() / 1_000_000;
+    }
+}
@@ -0,0 +1,199 @@
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * TaskColumns.java
+ * Immutable column-oriented copy of a task list, used as the base of
+ * TaskRepository's snapshots.
+ *
+ * This is a cheaper snapshot, not a smaller task store. Instead of a second
+ * Task object (with its String id, LocalDateTimes and strings) per row,
+ * every field is a primitive array:
+ *   id          two longs per UUID (other ids in a sparse String column)
+ *   timestamps  epoch seconds, NO_TIME for null (second precision, like the files)
+ *   completed   a bitset
+ *   tag         a byte index into Task.ALL_TAGS (custom tags in a sparse column)
+ *   description UTF-8 bytes in one shared arena, addressed by offset
+ *   order       int display order
+ * That is roughly 70 bytes plus the description per task, against several
+ * hundred for a detached copy, and only a dozen objects for the whole list.
+ * The live list still holds one full Task per row, so the heap of a large
+ * store is the live tasks and their indexes plus this, never less.
+ *
+ * Rows are read field by field, or through getTask, which builds a new
+ * Task (id string and dates included) on every call, so a save or export
+ * that walks a snapshot allocates one short-lived Task per row.
+ */
+public class TaskColumns {
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final byte CUSTOM_TAG = (byte) BinaryTaskFormat.CUSTOM_TAG;
+    
+    private final int size;
+    private final long[] idHigh;
+    private final long[] idLow;
+    private final String[] textIds; // null unless some id is not a UUID
+    private final long[] createdAt;
+    private final long[] completedAt;
+    private final long[] dueDate;
+    private final long[] modifiedAt;
+    private final long[] completedBits;
+    private final byte[] tags;
+    private final String[] customTags; // null unless some tag is not in Task.ALL_TAGS
+    private final byte[] descriptionArena;
+    private final int[] descriptionStart; // size + 1 offsets; row i spans [start[i], start[i + 1])
+    private final int[] displayOrder;
+    
+    private TaskColumns(int size, long[] idHigh, long[] idLow, String[] textIds, long[] createdAt,
+                        long[] completedAt, long[] dueDate, long[] modifiedAt, long[] completedBits, byte[] tags,
+                        String[] customTags, byte[] descriptionArena, int[] descriptionStart, int[] displayOrder) {
+        this.size = size;
+        this.idHigh = idHigh;
+        this.idLow = idLow;
+        this.textIds = textIds;
+        this.createdAt = createdAt;
+        this.completedAt = completedAt;
+        this.dueDate = dueDate;
+        this.modifiedAt = modifiedAt;
+        this.completedBits = completedBits;
+        this.tags = tags;
+        this.customTags = customTags;
+        this.descriptionArena = descriptionArena;
+        this.descriptionStart = descriptionStart;
+        this.displayOrder = displayOrder;
+    }
+    
+    /**
+     * Encodes a list of tasks
+     * @param tasks Tasks in the order the rows should have
+     * @return The columns
+     */
+    public static TaskColumns of(List<Task> tasks) {
+        int size = tasks.size();
+        long[] idHigh = new long[size];
+        long[] idLow = new long[size];
+        String[] textIds = null;
+        long[] createdAt = new long[size];
+        long[] completedAt = new long[size];
+        long[] dueDate = new long[size];
+        long[] modifiedAt = new long[size];
+        long[] completedBits = new long[(size + 63) >>> 6];
+        byte[] tags = new byte[size];
+        String[] customTags = null;
+        byte[] arena = new byte[Math.max(16, size * 32)];
+        int arenaLength = 0;
+        int[] descriptionStart = new int[size + 1];
+        int[] displayOrder = new int[size];
+        
+        for (int row = 0; row < size; row++) {
+            Task task = tasks.get(row);
+            
+            UUID uuid = BinaryTaskFormat.parseUuid(task.getId());
+            if (uuid != null) {
+                idHigh[row] = uuid.getMostSignificantBits();
+                idLow[row] = uuid.getLeastSignificantBits();
+            } else {
+                if (textIds == null) {
+                    textIds = new String[size];
+                }
+                textIds[row] = task.getId();
+            }
+            
+            createdAt[row] = toEpochSecond(task.getCreatedAt());
+            completedAt[row] = toEpochSecond(task.getCompletedAt());
+            dueDate[row] = toEpochSecond(task.getDueDate());
+            modifiedAt[row] = toEpochSecond(task.getModifiedAt());
+            if (task.isCompleted()) {
+                completedBits[row >>> 6] |= 1L << row;
+            }
+            
+            int tag = BinaryTaskFormat.tagIndex(task.getTag());
+            tags[row] = (byte) tag;
+            if (tag == BinaryTaskFormat.CUSTOM_TAG) {
+                if (customTags == null) {
+                    customTags = new String[size];
+                }
+                customTags[row] = task.getTag();
+            }
+            
+            byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+            if (arenaLength + description.length > arena.length) {
+                arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaLength + description.length));
+            }
+            System.arraycopy(description, 0, arena, arenaLength, description.length);
+            descriptionStart[row] = arenaLength;
+            arenaLength += description.length;
+            
+            displayOrder[row] = task.getDisplayOrder();
+        }
+        descriptionStart[size] = arenaLength;
+        
+        return new TaskColumns(size, idHigh, idLow, textIds, createdAt, completedAt, dueDate, modifiedAt, completedBits,
+                               tags, customTags, Arrays.copyOf(arena, arenaLength), descriptionStart, displayOrder);
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public String getId(int row) {
+        if (textIds != null && textIds[row] != null) {
+            return textIds[row];
+        }
+        return new UUID(idHigh[row], idLow[row]).toString();
+    }
+    
+    public String getDescription(int row) {
+        int start = descriptionStart[row];
+        return new String(descriptionArena, start, descriptionStart[row + 1] - start, StandardCharsets.UTF_8);
+    }
+    
+    public LocalDateTime getCreatedAt(int row) {
+        return fromEpochSecond(createdAt[row]);
+    }
+    
+    public boolean isCompleted(int row) {
+        return (completedBits[row >>> 6] & (1L << row)) != 0;
+    }
+    
+    public LocalDateTime getCompletedAt(int row) {
+        return fromEpochSecond(completedAt[row]);
+    }
+    
+    public String getTag(int row) {
+        byte tag = tags[row];
+        return tag == CUSTOM_TAG ? customTags[row] : Task.ALL_TAGS[tag];
+    }
+    
+    public LocalDateTime getDueDate(int row) {
+        return fromEpochSecond(dueDate[row]);
+    }
+    
+    public int getDisplayOrder(int row) {
+        return displayOrder[row];
+    }
+    
+    public LocalDateTime getModifiedAt(int row) {
+        return fromEpochSecond(modifiedAt[row]);
+    }
+    
+    /**
+     * Builds a detached Task for one row; each call returns a new object
+     */
+    public Task getTask(int row) {
+        return new Task(getId(row), getDescription(row), getCreatedAt(row), isCompleted(row),
+                        getCompletedAt(row), getTag(row), getDueDate(row), getDisplayOrder(row),
+                        getModifiedAt(row));
+    }
+    
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.toEpochSecond(ZoneOffset.UTC) : NO_TIME;
+    }
+    
+    private static LocalDateTime fromEpochSecond(long epochSecond) {
+        return epochSecond != NO_TIME ? LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC) : null;
+    }
+}
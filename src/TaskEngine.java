@@ -0,0 +1,705 @@
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+
+/**
+ * TaskEngine.java
+ * Everything the app does with tasks, without any user interface.
+ *
+ * The engine owns the task list and keeps the id index, search index,
+ * statistics, autosave, deadline scheduler and shared snapshots in step
+ * with it. It offers queries, filtering, edits, reordering and persistence;
+ * Main is only a view over it, and a CLI or server can drive it the same way.
+ *
+ * Only JavaFX collections are used (javafx-base), which need no running
+ * toolkit. All methods must be called on the owner thread, which is where
+ * the owner executor runs callbacks (Platform::runLater in the app, a
+ * single-thread executor elsewhere).
+ */
+public class TaskEngine {
+    private final Executor ownerExecutor;
+    private final TaskRepository repository;
+    private final TaskList allTasks;
+    private final TaskIdIndex taskIndex;
+    private final SearchIndex searchIndex = new SearchIndex();
+    private final TaskStatistics statistics = new TaskStatistics();
+    private final TaskBitmapIndex bitmapIndex = new TaskBitmapIndex();
+    private final PersistenceService persistence;
+    private final AutoSaver autoSaver;
+    private final DeadlineScheduler deadlineScheduler;
+    
+    // Bulk operations test tasks in parallel from this many tasks on
+    public static final int PARALLEL_THRESHOLD = 10000;
+    // Bulk edits of this many tasks write a snapshot instead of journal records
+    // (matches the journal's compaction threshold)
+    public static final int SNAPSHOT_THRESHOLD = 1000;
+    // Imports queue at most this many parsed batches for the owner thread
+    public static final int IMPORT_BATCHES_IN_FLIGHT = 2;
+    
+    // View pipeline: allTasks -> tag filter -> search filter; filters keep the source order
+    private final FilteredList<Task> tagFilteredTasks;
+    private final FilteredList<Task> visibleTasks;
+    
+    // Fans task edits out to everything that tracks task state
+    private final TaskListener taskListener;
+    
+    // While loadTasks reads the files: id -> task edited or added since, null value if removed
+    private Map<String, Task> reloadEdits = null;
+    
+    /**
+     * @param ownerExecutor Runs callbacks on the owner thread, e.g. Platform::runLater
+     * @param deadlineListener Told when tasks become due soon or overdue
+     */
+    public TaskEngine(Executor ownerExecutor, DeadlineScheduler.DeadlineListener deadlineListener) {
+        this.ownerExecutor = ownerExecutor;
+        repository = new TaskRepository();
+        allTasks = repository.getTasks();
+        taskIndex = new TaskIdIndex(allTasks);
+        persistence = new PersistenceService(ownerExecutor);
+        autoSaver = new AutoSaver(persistence, ownerExecutor, this::compactJournal);
+        deadlineScheduler = new DeadlineScheduler(deadlineListener, ownerExecutor);
+        
+        taskListener = (task, property, oldValue, newValue) -> {
+            statistics.taskChanged(task, property, oldValue, newValue);
+            bitmapIndex.taskChanged(task, property, oldValue, newValue);
+            autoSaver.taskChanged(task, property, oldValue, newValue);
+            deadlineScheduler.taskChanged(task, property, oldValue, newValue);
+            repository.taskChanged(task, property, oldValue, newValue);
+            if (reloadEdits != null) {
+                reloadEdits.put(task.getId(), task);
+            }
+        };
+        
+        // Keep the indexes and statistics in step with the task list. Registered
+        // before the view pipeline so the index is current when the search predicate runs.
+        allTasks.addListener((ListChangeListener<Task>) change -> {
+            while (change.next()) {
+                // In-place updates (TaskList.fireUpdated) leave every position as it was
+                if (!change.wasUpdated()) {
+                    taskIndex.invalidateFrom(change.getFrom());
+                }
+                for (Task task : change.getRemoved()) {
+                    task.setListener(null);
+                    taskIndex.removed(task);
+                    searchIndex.remove(task);
+                    statistics.taskRemoved(task);
+                    bitmapIndex.taskRemoved(task);
+                    autoSaver.taskRemoved(task);
+                    deadlineScheduler.taskRemoved(task);
+                    if (reloadEdits != null) {
+                        reloadEdits.put(task.getId(), null);
+                    }
+                }
+                for (Task task : change.getAddedSubList()) {
+                    taskIndex.added(task);
+                    searchIndex.add(task);
+                    statistics.taskAdded(task);
+                    bitmapIndex.taskAdded(task);
+                    autoSaver.taskAdded(task);
+                    deadlineScheduler.taskAdded(task);
+                    task.setListener(taskListener);
+                    if (reloadEdits != null) {
+                        reloadEdits.put(task.getId(), task);
+                    }
+                }
+            }
+        });
+        
+        // Live view pipeline: each stage only re-evaluates the rows that changed
+        tagFilteredTasks = new FilteredList<>(allTasks);
+        visibleTasks = new FilteredList<>(tagFilteredTasks);
+    }
+    
+    // Queries
+    
+    /**
+     * All tasks in display order; change them through the engine
+     */
+    public ObservableList<Task> getTasks() {
+        return allTasks;
+    }
+    
+    /**
+     * The tasks that pass the current filter, in display order
+     */
+    public ObservableList<Task> getVisibleTasks() {
+        return visibleTasks;
+    }
+    
+    /**
+     * Looks up a task by id
+     * @return The task, or null if no task has that id
+     */
+    public Task getTask(String id) {
+        return taskIndex.get(id);
+    }
+    
+    public boolean contains(Task task) {
+        return taskIndex.indexOf(task) >= 0;
+    }
+    
+    /**
+     * Live counts; safe to read from any thread
+     */
+    public TaskStatistics getStatistics() {
+        return statistics;
+    }
+    
+    /**
+     * Lists the pending tasks whose due date has passed
+     */
+    public List<Task> getOverdueTasks() {
+        // Nothing overdue means nothing to list, so skip the scan
+        if (statistics.getOverdueCount() == 0) {
+            return Collections.emptyList();
+        }
+        return findTasks(null, false, TaskBitmapIndex.Due.OVERDUE);
+    }
+    
+    /**
+     * Lists the tasks matching every given condition, in display order
+     * @param tag Tag to match, or null for any
+     * @param completed true for completed, false for pending, null for either
+     * @param due Due bucket to match, or null for any
+     */
+    public List<Task> findTasks(String tag, Boolean completed, TaskBitmapIndex.Due due) {
+        Tag interned = null;
+        if (tag != null) {
+            interned = Tag.find(tag);
+            if (interned == null) {
+                return Collections.emptyList();
+            }
+        }
+        List<Task> found = bitmapIndex.find(interned, completed, due);
+        found.sort(Comparator.comparingInt(Task::getDisplayOrder));
+        return found;
+    }
+    
+    /**
+     * Filters the visible tasks
+     * Task edits reach the view through the pipeline as single-row changes,
+     * so this only needs calling when the filter itself changes.
+     * @param tag Tag to show, or null for all tags
+     * @param query Search text, or "" for no search
+     */
+    public void setFilter(String tag, String query) {
+        if (tag == null) {
+            tagFilteredTasks.setPredicate(null);
+        } else {
+            // A name no task has ever used has no id and matches nothing
+            Tag filterTag = Tag.find(tag);
+            int tagId = filterTag != null ? filterTag.getId() : -1;
+            tagFilteredTasks.setPredicate(task -> task.getTagId() == tagId);
+        }
+        
+        // Answered by the index (null means no search text).
+        // The index keeps the match set current as tasks are added or edited.
+        Set<Task> matches = searchIndex.search(query);
+        visibleTasks.setPredicate(matches == null ? null : matches::contains);
+    }
+    
+    // Edits
+    
+    /**
+     * Adds a task at the end of the list
+     * @param dueDate Due date, or null for none
+     * @return The new task
+     */
+    public Task addTask(String description, String tag, LocalDateTime dueDate) {
+        Task task = new Task(description);
+        task.setTag(tag);
+        task.setDueDate(dueDate);
+        
+        int order = TaskOrdering.nextOrder(allTasks);
+        if (order == TaskOrdering.NO_GAP) {
+            rebalanceDisplayOrder();
+            order = TaskOrdering.nextOrder(allTasks);
+        }
+        task.setDisplayOrder(order);
+        allTasks.add(task);
+        return task;
+    }
+    
+    /**
+     * Replaces a task's editable fields
+     * @param dueDate Due date, or null for none
+     */
+    public void updateTask(Task task, String description, String tag, LocalDateTime dueDate) {
+        task.setDescription(description);
+        task.setTag(tag);
+        task.setDueDate(dueDate);
+        refreshTask(task);
+    }
+    
+    public void toggleCompleted(Task task) {
+        task.toggleCompleted();
+        refreshTask(task);
+    }
+    
+    /**
+     * Removes a task
+     * @return false if the task was not in the list
+     */
+    public boolean deleteTask(Task task) {
+        int index = taskIndex.indexOf(task);
+        if (index < 0) {
+            return false;
+        }
+        allTasks.remove(index);
+        return true;
+    }
+    
+    /**
+     * Moves a task to another task's position (drag & drop)
+     * Only the moved task gets a new display order, between its new neighbours.
+     * @return false if either task is not in the list
+     */
+    public boolean moveTask(Task task, Task target) {
+        int from = taskIndex.indexOf(task);
+        int to = taskIndex.indexOf(target);
+        if (from < 0 || to < 0) {
+            return false;
+        }
+        
+        allTasks.remove(from);
+        allTasks.add(to, task);
+        
+        Task before = to > 0 ? allTasks.get(to - 1) : null;
+        Task after = to + 1 < allTasks.size() ? allTasks.get(to + 1) : null;
+        int order = TaskOrdering.orderBetween(before, after);
+        if (order != TaskOrdering.NO_GAP) {
+            task.setDisplayOrder(order);
+        } else {
+            rebalanceDisplayOrder();
+        }
+        return true;
+    }
+    
+    // Bulk operations
+    // Each one finds its tasks (in parallel for large lists), applies the edits
+    // on the owner thread, tells the view in one list change and writes once.
+    
+    /**
+     * Removes every completed task
+     * @return Number of tasks removed
+     */
+    public int clearCompleted() {
+        int[] completed = findIndexes(Task::isCompleted);
+        if (completed.length == 0) {
+            return 0;
+        }
+        Set<Task> toRemove = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int index : completed) {
+            toRemove.add(allTasks.get(index));
+        }
+        allTasks.removeAll(toRemove);
+        persistBulkEdit(completed.length);
+        return completed.length;
+    }
+    
+    /**
+     * Gives every matching task the same tag
+     * @param matching Which tasks to retag
+     * @return Number of tasks whose tag changed
+     */
+    public int retagMatching(Predicate<Task> matching, String tag) {
+        Tag newTag = Tag.of(tag);
+        int[] indexes = findIndexes(task -> task.getTagId() != newTag.getId() && matching.test(task));
+        for (int index : indexes) {
+            allTasks.get(index).setTag(newTag.getName());
+        }
+        return finishBulkEdit(indexes);
+    }
+    
+    /**
+     * Moves the due dates of matching tasks; tasks without a due date are left alone
+     * @param matching Which tasks to reschedule
+     * @param amount How far to move the due dates (negative for earlier)
+     * @return Number of tasks rescheduled
+     */
+    public int shiftDueDates(Predicate<Task> matching, Duration amount) {
+        if (amount.isZero()) {
+            return 0;
+        }
+        int[] indexes = findIndexes(task -> task.getDueDate() != null && matching.test(task));
+        
+        // The new dates are worked out alongside the search, the setters run here
+        LocalDateTime[] dueDates = new LocalDateTime[indexes.length];
+        IntStream range = IntStream.range(0, indexes.length);
+        (indexes.length >= PARALLEL_THRESHOLD ? range.parallel() : range)
+            .forEach(i -> dueDates[i] = allTasks.get(indexes[i]).getDueDate().plus(amount));
+        for (int i = 0; i < indexes.length; i++) {
+            allTasks.get(indexes[i]).setDueDate(dueDates[i]);
+        }
+        return finishBulkEdit(indexes);
+    }
+    
+    /**
+     * Completes every pending task that passes the current filter
+     * @return Number of tasks completed
+     */
+    public int completeVisible() {
+        Set<Task> visible = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Task task : visibleTasks) {
+            if (!task.isCompleted()) {
+                visible.add(task);
+            }
+        }
+        if (visible.isEmpty()) {
+            return 0;
+        }
+        int[] indexes = findIndexes(visible::contains);
+        for (int index : indexes) {
+            allTasks.get(index).setCompleted(true);
+        }
+        return finishBulkEdit(indexes);
+    }
+    
+    /**
+     * Positions of the matching tasks, ascending; tested in parallel for large lists
+     * The predicate must only read the tasks.
+     */
+    private int[] findIndexes(Predicate<Task> matching) {
+        IntStream range = IntStream.range(0, allTasks.size());
+        if (allTasks.size() >= PARALLEL_THRESHOLD) {
+            range = range.parallel();
+        }
+        return range.filter(i -> matching.test(allTasks.get(i))).toArray();
+    }
+    
+    /**
+     * Re-filters the edited rows in one list change and persists the edits
+     */
+    private int finishBulkEdit(int[] indexes) {
+        allTasks.fireUpdated(indexes);
+        persistBulkEdit(indexes.length);
+        return indexes.length;
+    }
+    
+    /**
+     * Writes a bulk edit at once, as one journal batch or, for big edits, one snapshot
+     */
+    private void persistBulkEdit(int changed) {
+        if (changed == 0) {
+            return;
+        }
+        if (changed >= SNAPSHOT_THRESHOLD) {
+            List<Task> snapshot = repository.publishNow().getTasks();
+            autoSaver.discardPending();
+            persistence.saveTasks(snapshot, () -> { },
+                e -> System.err.println("Bulk edit save warning: " + e.getMessage()));
+        } else {
+            autoSaver.flush();
+        }
+    }
+    
+    // Persistence
+    
+    /**
+     * Saves all tasks as a fresh snapshot in the background
+     * The save gets detached copies, so later edits can't race with it,
+     * and it covers every pending autosave change.
+     */
+    public void saveTasks(Runnable onSaved, Consumer<IOException> onError) {
+        List<Task> snapshot = repository.publishNow().getTasks();
+        autoSaver.discardPending();
+        persistence.saveTasks(snapshot, onSaved, onError);
+    }
+    
+    /**
+     * Exports tasks in the background, streaming them from a snapshot
+     * Later edits don't affect the export. Exporting the filtered view only
+     * marks the visible rows, one bit per task.
+     * @param format Output format
+     * @param file Destination, gzip-compressed if the name ends in .gz
+     * @param visibleOnly Export only the tasks that pass the current filter
+     * @param onExported Receives the number of tasks written
+     */
+    public void exportTasks(TaskExporter.Format format, File file, boolean visibleOnly,
+                            Consumer<Long> onExported, Consumer<IOException> onError) {
+        List<Task> snapshot = repository.publishNow().getTasks();
+        Iterable<Task> tasks = snapshot;
+        if (visibleOnly) {
+            BitSet rows = new BitSet(allTasks.size());
+            for (int i = 0; i < visibleTasks.size(); i++) {
+                rows.set(visibleTasks.getSourceIndexFor(allTasks, i));
+            }
+            tasks = () -> new Iterator<Task>() {
+                private int row = rows.nextSetBit(0);
+                
+                @Override
+                public boolean hasNext() {
+                    return row >= 0;
+                }
+                
+                @Override
+                public Task next() {
+                    if (row < 0) {
+                        throw new NoSuchElementException();
+                    }
+                    Task task = snapshot.get(row);
+                    row = rows.nextSetBit(row + 1);
+                    return task;
+                }
+            };
+        }
+        persistence.exportTasks(tasks, format, file, onExported, onError);
+    }
+    
+    /**
+     * Imports tasks from a file, merging them into the list by id
+     * The file is parsed on a background thread and merged on the owner thread
+     * in batches of TaskImporter.BATCH_SIZE; the parser waits whenever
+     * IMPORT_BATCHES_IN_FLIGHT batches are queued, so neither the owner thread
+     * nor the heap is flooded. Unknown ids are appended; a known id is updated
+     * only if the imported copy was modified later (last writer wins), keeping
+     * its place in the list. Repeated ids within the file resolve the same way.
+     * The merged tasks are written once at the end.
+     * @param format Input format
+     * @param file Source, gzip-compressed if the name ends in .gz
+     * @param onProgress Receives import progress from 0.0 to 1.0
+     * @param onImported Receives the counts, after every batch was merged
+     */
+    public void importTasks(TaskImporter.Format format, File file, DoubleConsumer onProgress,
+                            Consumer<TaskImporter.Result> onImported, Consumer<IOException> onError) {
+        TaskImporter.Result result = new TaskImporter.Result();
+        Semaphore inFlight = new Semaphore(IMPORT_BATCHES_IN_FLIGHT);
+        Thread importer = new Thread(() -> {
+            try {
+                TaskImporter.importFile(file, format, (batch, progress) -> {
+                    inFlight.acquire();
+                    ownerExecutor.execute(() -> {
+                        try {
+                            mergeImported(batch, result);
+                        } finally {
+                            inFlight.release();
+                        }
+                        onProgress.accept(progress);
+                    });
+                }, result);
+                // Runs after every queued batch
+                ownerExecutor.execute(() -> {
+                    persistBulkEdit((int) Math.min(Integer.MAX_VALUE, result.added + result.updated));
+                    onImported.accept(result);
+                });
+            } catch (IOException e) {
+                // Whatever was merged before the error stays, and is saved
+                ownerExecutor.execute(() -> {
+                    persistBulkEdit((int) Math.min(Integer.MAX_VALUE, result.added + result.updated));
+                    onError.accept(e);
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "task-import");
+        importer.setDaemon(true);
+        importer.start();
+    }
+    
+    /**
+     * Merges one batch of imported tasks, in one list change for the updated
+     * tasks and one for the added ones
+     */
+    private void mergeImported(List<Task> batch, TaskImporter.Result result) {
+        // Latest copy of each id in the batch
+        Map<String, Task> latest = new LinkedHashMap<>(batch.size() * 2);
+        for (Task task : batch) {
+            Task seen = latest.putIfAbsent(task.getId(), task);
+            if (seen != null) {
+                result.unchanged++;
+                if (task.getModifiedAt().isAfter(seen.getModifiedAt())) {
+                    latest.put(task.getId(), task);
+                }
+            }
+        }
+        
+        List<Task> added = new ArrayList<>();
+        int[] updated = new int[latest.size()];
+        int updatedCount = 0;
+        for (Task imported : latest.values()) {
+            Task existing = taskIndex.get(imported.getId());
+            if (existing == null) {
+                added.add(imported);
+            } else if (imported.getModifiedAt().isAfter(existing.getModifiedAt()) && existing.mergeFrom(imported)) {
+                searchIndex.update(existing);
+                updated[updatedCount++] = taskIndex.indexOf(existing);
+            } else {
+                result.unchanged++;
+            }
+        }
+        
+        if (updatedCount > 0) {
+            updated = Arrays.copyOf(updated, updatedCount);
+            Arrays.sort(updated);
+            allTasks.fireUpdated(updated);
+            result.updated += updatedCount;
+        }
+        if (!added.isEmpty()) {
+            // Appended in file order; if the orders run out, spread the whole list out afterwards
+            boolean rebalance = false;
+            Task previous = allTasks.isEmpty() ? null : allTasks.get(allTasks.size() - 1);
+            for (Task task : added) {
+                int order = TaskOrdering.orderBetween(previous, null);
+                if (order == TaskOrdering.NO_GAP) {
+                    rebalance = true;
+                    order = previous.getDisplayOrder();
+                }
+                task.setDisplayOrder(order);
+                previous = task;
+            }
+            allTasks.addAll(added);
+            if (rebalance) {
+                rebalanceDisplayOrder();
+            }
+            result.added += added.size();
+        }
+    }
+    
+    /**
+     * Replaces all tasks with the saved ones
+     * Edits made while the files are read are applied on top of the loaded
+     * tasks and saved with them, so none are lost or left only on disk.
+     * @param onLoaded Receives the loaded tasks, after they replaced the list
+     */
+    public void loadTasks(DoubleConsumer onProgress, Consumer<List<Task>> onLoaded, Consumer<IOException> onError) {
+        // Journal what is pending first, so the load reads it back
+        autoSaver.flush();
+        Map<String, Task> edits = new LinkedHashMap<>();
+        reloadEdits = edits;
+        
+        persistence.loadTasks(onProgress, loadedTasks -> {
+            if (reloadEdits == edits) {
+                reloadEdits = null;
+            }
+            if (edits.isEmpty()) {
+                allTasks.setAll(loadedTasks);
+                // Only the churn of setAll: everything from before the load was flushed above
+                autoSaver.discardPending();
+            } else {
+                // The edits may have been journaled or snapshotted after the read,
+                // so write the merged list as a fresh snapshot
+                allTasks.setAll(applyEdits(loadedTasks, edits));
+                saveTasks(() -> { }, e -> System.err.println("Reload save warning: " + e.getMessage()));
+            }
+            onLoaded.accept(loadedTasks);
+        }, e -> {
+            if (reloadEdits == edits) {
+                reloadEdits = null;
+            }
+            onError.accept(e);
+        });
+    }
+    
+    /**
+     * Applies edits to loaded tasks the way the journal replays them:
+     * edited tasks replace the loaded ones with their id, new ones are
+     * appended, removed ones dropped, then display order is restored
+     */
+    private static List<Task> applyEdits(List<Task> loadedTasks, Map<String, Task> edits) {
+        Map<String, Task> merged = new LinkedHashMap<>();
+        for (Task task : loadedTasks) {
+            merged.put(task.getId(), task);
+        }
+        for (Map.Entry<String, Task> edit : edits.entrySet()) {
+            if (edit.getValue() == null) {
+                merged.remove(edit.getKey());
+            } else {
+                merged.put(edit.getKey(), edit.getValue());
+            }
+        }
+        List<Task> tasks = new ArrayList<>(merged.values());
+        tasks.sort(Comparator.comparingInt(Task::getDisplayOrder));
+        return tasks;
+    }
+    
+    /**
+     * Loads the saved tasks in front of any tasks added meanwhile (startup)
+     * @param onLoaded Receives the loaded tasks, after they were added
+     */
+    public void loadSavedTasks(DoubleConsumer onProgress, Consumer<List<Task>> onLoaded, Consumer<IOException> onError) {
+        persistence.loadTasks(onProgress, loadedTasks -> {
+            if (!loadedTasks.isEmpty()) {
+                // Anything added while loading stays after the saved tasks and is
+                // still autosaved; the loaded tasks themselves are already on disk
+                autoSaver.flush();
+                allTasks.addAll(0, loadedTasks);
+                autoSaver.discardPending();
+                
+                // They were numbered as if the list were empty; move their orders past the saved tasks
+                for (int i = loadedTasks.size(); i < allTasks.size(); i++) {
+                    int order = TaskOrdering.nextOrder(allTasks.subList(0, i));
+                    if (order == TaskOrdering.NO_GAP) {
+                        rebalanceDisplayOrder();
+                        break;
+                    }
+                    allTasks.get(i).setDisplayOrder(order);
+                }
+            }
+            onLoaded.accept(loadedTasks);
+        }, onError);
+    }
+    
+    /**
+     * Writes pending changes and stops the background threads
+     * @param timeoutMillis How long to wait for queued writes
+     */
+    public void shutdown(long timeoutMillis) {
+        deadlineScheduler.shutdown();
+        autoSaver.shutdown();
+        persistence.shutdown(timeoutMillis);
+    }
+    
+    /**
+     * Re-indexes a task that was changed in place and reports it as an
+     * update, so every stage of the view pipeline re-evaluates just that row
+     * while the id index keeps its positions
+     */
+    private void refreshTask(Task task) {
+        int index = taskIndex.indexOf(task);
+        if (index >= 0) {
+            searchIndex.update(task);
+            allTasks.fireUpdated(new int[] { index });
+        }
+    }
+    
+    /**
+     * Folds a long journal into a snapshot of the tasks in memory
+     * Repeated requests are harmless: queued saves are coalesced.
+     */
+    private void compactJournal() {
+        saveTasks(() -> { }, e -> System.err.println("Journal compaction warning: " + e.getMessage()));
+    }
+    
+    /**
+     * Spreads display orders out again once neighbours have run out of room
+     * Every task changes, so this writes a fresh snapshot instead of journaling each one.
+     */
+    private void rebalanceDisplayOrder() {
+        TaskOrdering.rebalance(allTasks);
+        autoSaver.discardPending();
+        persistence.saveTasks(repository.publishNow().getTasks(), () -> { },
+            e -> System.err.println("Rebalance save warning: " + e.getMessage()));
+    }
+}
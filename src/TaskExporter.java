@@ -0,0 +1,382 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * TaskExporter.java
+ * Streams tasks out as CSV, JSON Lines or iCalendar.
+ *
+ * Tasks are read one at a time from any Iterable (typically a snapshot's
+ * task list, whose rows are built on demand) and each record is encoded
+ * straight into a fixed 64 KB buffer that is drained to the channel, so
+ * memory stays constant however many tasks are exported. Output is UTF-8,
+ * optionally gzip-compressed.
+ *
+ * Formats:
+ *   CSV    header row, RFC 4180 quoting, ISO-8601 local date-times
+ *   JSONL  one JSON object per task
+ *   ICS    a VCALENDAR with one VTODO per task (DUE from the due date)
+ */
+public class TaskExporter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final DateTimeFormatter ICS_LOCAL_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter ICS_UTC_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    
+    private static final String CSV_HEADER = "id,description,created_at,completed,completed_at,tag,due_date,display_order,modified_at";
+    
+    /**
+     * Supported export formats
+     */
+    public enum Format {
+        CSV("csv"), JSONL("jsonl"), ICS("ics");
+        
+        private final String extension;
+        
+        Format(String extension) {
+            this.extension = extension;
+        }
+        
+        public String getExtension() {
+            return extension;
+        }
+        
+        /**
+         * Picks the format from a file name such as tasks.csv or tasks.jsonl.gz
+         * @return The format, or null if the extension is not recognized
+         */
+        public static Format forFileName(String name) {
+            String lower = name.toLowerCase();
+            if (lower.endsWith(".gz")) {
+                lower = lower.substring(0, lower.length() - 3);
+            }
+            for (Format format : values()) {
+                if (lower.endsWith("." + format.extension)) {
+                    return format;
+                }
+            }
+            return null;
+        }
+    }
+    
+    /**
+     * Exports tasks to a file, gzip-compressed if the name ends in .gz
+     * @param tasks The tasks to write; must not change during the export
+     * @param format Output format
+     * @param file Destination, replaced if it exists
+     * @return Number of tasks written
+     * @throws IOException if writing fails
+     */
+    public static long exportToFile(Iterable<Task> tasks, Format format, File file) throws IOException {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                                       StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            return export(tasks, format, channel, file.getName().toLowerCase().endsWith(".gz"));
+        } finally {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    System.err.println("Error closing export file: " + e.getMessage());
+                }
+            }
+        }
+    }
+    
+    /**
+     * Exports tasks to a channel, which is left open
+     * @param tasks The tasks to write; must not change during the export
+     * @param format Output format
+     * @param channel Destination
+     * @param gzip Whether to gzip-compress the output
+     * @return Number of tasks written
+     * @throws IOException if writing fails
+     */
+    public static long export(Iterable<Task> tasks, Format format, WritableByteChannel channel, boolean gzip)
+            throws IOException {
+        GZIPOutputStream gzipStream = null;
+        WritableByteChannel out = channel;
+        if (gzip) {
+            // Not closed, since that would close the caller's channel; finish() ends the gzip stream
+            gzipStream = new GZIPOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+            out = Channels.newChannel(gzipStream);
+        }
+        
+        RecordWriter writer = new RecordWriter(out);
+        long count = 0;
+        StringBuilder record = writer.record();
+        
+        if (format == Format.CSV) {
+            record.append(CSV_HEADER).append("\r\n");
+        } else if (format == Format.ICS) {
+            record.append("BEGIN:VCALENDAR\r\n")
+                  .append("VERSION:2.0\r\n")
+                  .append("PRODID:-//Student Task Manager//Task Export//EN\r\n");
+        }
+        writer.writeRecord();
+        
+        String exportedAt = LocalDateTime.now(ZoneOffset.UTC).format(ICS_UTC_FORMATTER);
+        for (Task task : tasks) {
+            switch (format) {
+                case CSV:
+                    appendCsv(record, task);
+                    break;
+                case JSONL:
+                    appendJson(record, task);
+                    break;
+                case ICS:
+                    appendVTodo(record, task, exportedAt);
+                    break;
+            }
+            writer.writeRecord();
+            count++;
+        }
+        
+        if (format == Format.ICS) {
+            record.append("END:VCALENDAR\r\n");
+            writer.writeRecord();
+        }
+        writer.flush();
+        if (gzipStream != null) {
+            gzipStream.finish();
+            gzipStream.flush();
+        }
+        return count;
+    }
+    
+    // CSV
+    
+    private static void appendCsv(StringBuilder out, Task task) {
+        appendCsvField(out, task.getId()).append(',');
+        appendCsvField(out, task.getDescription()).append(',');
+        out.append(task.getCreatedAt().format(ISO_FORMATTER)).append(',');
+        out.append(task.isCompleted()).append(',');
+        if (task.getCompletedAt() != null) {
+            out.append(task.getCompletedAt().format(ISO_FORMATTER));
+        }
+        out.append(',');
+        appendCsvField(out, task.getTag()).append(',');
+        if (task.getDueDate() != null) {
+            out.append(task.getDueDate().format(ISO_FORMATTER));
+        }
+        out.append(',');
+        out.append(task.getDisplayOrder()).append(',');
+        out.append(task.getModifiedAt().format(ISO_FORMATTER)).append("\r\n");
+    }
+    
+    /**
+     * Appends a field, quoted if it contains a comma, quote or line break
+     */
+    private static StringBuilder appendCsvField(StringBuilder out, String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            return out.append(value);
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        return out.append('"');
+    }
+    
+    // JSON Lines
+    
+    private static void appendJson(StringBuilder out, Task task) {
+        out.append("{\"id\":");
+        appendJsonString(out, task.getId());
+        out.append(",\"description\":");
+        appendJsonString(out, task.getDescription());
+        out.append(",\"createdAt\":");
+        appendJsonDate(out, task.getCreatedAt());
+        out.append(",\"completed\":").append(task.isCompleted());
+        out.append(",\"completedAt\":");
+        appendJsonDate(out, task.getCompletedAt());
+        out.append(",\"tag\":");
+        appendJsonString(out, task.getTag());
+        out.append(",\"dueDate\":");
+        appendJsonDate(out, task.getDueDate());
+        out.append(",\"displayOrder\":").append(task.getDisplayOrder());
+        out.append(",\"modifiedAt\":");
+        appendJsonDate(out, task.getModifiedAt());
+        out.append("}\n");
+    }
+    
+    private static void appendJsonDate(StringBuilder out, LocalDateTime dateTime) {
+        if (dateTime == null) {
+            out.append("null");
+        } else {
+            out.append('"').append(dateTime.format(ISO_FORMATTER)).append('"');
+        }
+    }
+    
+    private static void appendJsonString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+    
+    // iCalendar
+    
+    private static void appendVTodo(StringBuilder out, Task task, String exportedAt) {
+        out.append("BEGIN:VTODO\r\n");
+        appendIcsLine(out, "UID:" + escapeIcsText(task.getId()));
+        out.append("DTSTAMP:").append(exportedAt).append("\r\n");
+        out.append("LAST-MODIFIED:").append(toUtc(task.getModifiedAt()).format(ICS_UTC_FORMATTER)).append("\r\n");
+        appendIcsLine(out, "SUMMARY:" + escapeIcsText(task.getDescription()));
+        // Task times are local; DUE stays a floating local time, COMPLETED and LAST-MODIFIED must be UTC
+        if (task.getDueDate() != null) {
+            out.append("DUE:").append(task.getDueDate().format(ICS_LOCAL_FORMATTER)).append("\r\n");
+        }
+        if (task.isCompleted()) {
+            out.append("STATUS:COMPLETED\r\n");
+            if (task.getCompletedAt() != null) {
+                out.append("COMPLETED:").append(toUtc(task.getCompletedAt()).format(ICS_UTC_FORMATTER)).append("\r\n");
+            }
+        } else {
+            out.append("STATUS:NEEDS-ACTION\r\n");
+        }
+        if (!Task.TAG_NONE.equals(task.getTag())) {
+            appendIcsLine(out, "CATEGORIES:" + escapeIcsText(task.getTag()));
+        }
+        out.append("END:VTODO\r\n");
+    }
+    
+    private static LocalDateTime toUtc(LocalDateTime local) {
+        return local.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
+    }
+    
+    private static String escapeIcsText(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\': escaped.append("\\\\"); break;
+                case ';': escaped.append("\\;"); break;
+                case ',': escaped.append("\\,"); break;
+                case '\n': escaped.append("\\n"); break;
+                case '\r': break;
+                default: escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+    
+    /**
+     * Appends a content line folded at 75 octets of UTF-8, as RFC 5545 requires
+     */
+    private static void appendIcsLine(StringBuilder out, String line) {
+        int octets = 0;
+        for (int i = 0; i < line.length(); ) {
+            int codePoint = line.codePointAt(i);
+            int width = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (octets + width > 75) {
+                out.append("\r\n ");
+                octets = 1; // The leading space counts
+            }
+            out.appendCodePoint(codePoint);
+            octets += width;
+            i += Character.charCount(codePoint);
+        }
+        out.append("\r\n");
+    }
+    
+    /**
+     * Encodes records into a fixed buffer and drains it to the channel when full
+     */
+    private static class RecordWriter {
+        private final WritableByteChannel channel;
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private final StringBuilder record = new StringBuilder(256);
+        
+        RecordWriter(WritableByteChannel channel) {
+            this.channel = channel;
+            // A stray surrogate in a description shouldn't abort the whole export
+            encoder.onMalformedInput(CodingErrorAction.REPLACE);
+            encoder.onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+        
+        /**
+         * The builder for the next record; reused, so each record costs no new buffers
+         */
+        StringBuilder record() {
+            return record;
+        }
+        
+        /**
+         * Encodes the pending record into the buffer and clears it
+         */
+        void writeRecord() throws IOException {
+            CharBuffer chars = CharBuffer.wrap(record);
+            encoder.reset();
+            while (true) {
+                CoderResult result = encoder.encode(chars, buffer, true);
+                if (result.isOverflow()) {
+                    drain();
+                } else if (result.isError()) {
+                    result.throwException();
+                } else {
+                    break;
+                }
+            }
+            while (encoder.flush(buffer).isOverflow()) {
+                drain();
+            }
+            record.setLength(0);
+            // Very long records can leave the builder large; don't hold on to that
+            if (record.capacity() > BUFFER_SIZE) {
+                record.trimToSize();
+            }
+        }
+        
+        void flush() throws IOException {
+            drain();
+        }
+        
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
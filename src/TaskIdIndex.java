@@ -0,0 +1,117 @@
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TaskIdIndex.java
+ * Hash index from task id to task and its position in the backing list.
+ *
+ * Positions are tracked lazily: the owner reports the lowest index touched
+ * by each list change, and every position below that mark is still exact.
+ * A lookup past the mark re-numbers only the tail of the list, so appends
+ * and edits near the end stay cheap and repeated lookups are O(1).
+ */
+public class TaskIdIndex {
+    private final List<Task> tasks;
+    private final Map<String, Entry> entries = new HashMap<>();
+    
+    // Every entry with position < validUpTo is known to be correct
+    private int validUpTo = 0;
+    
+    private static class Entry {
+        final Task task;
+        int position = -1;
+        
+        Entry(Task task) {
+            this.task = task;
+        }
+    }
+    
+    /**
+     * @param tasks The list this index tracks; changes must be reported back
+     */
+    public TaskIdIndex(List<Task> tasks) {
+        this.tasks = tasks;
+    }
+    
+    /**
+     * Records a task added to the list
+     */
+    public void added(Task task) {
+        entries.put(task.getId(), new Entry(task));
+    }
+    
+    /**
+     * Records a task removed from the list
+     */
+    public void removed(Task task) {
+        Entry entry = entries.get(task.getId());
+        if (entry != null && entry.task == task) {
+            entries.remove(task.getId());
+        }
+    }
+    
+    /**
+     * Marks positions from the given list index onward as stale
+     * @param from Lowest index affected by a list change
+     */
+    public void invalidateFrom(int from) {
+        validUpTo = Math.min(validUpTo, from);
+    }
+    
+    /**
+     * Looks up a task by id
+     * @return The task, or null if no task has that id
+     */
+    public Task get(String id) {
+        Entry entry = entries.get(id);
+        return entry != null ? entry.task : null;
+    }
+    
+    /**
+     * Finds the position of a task by id
+     * @return The list index, or -1 if no task has that id
+     */
+    public int indexOf(String id) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return -1;
+        }
+        if (entry.position < 0 || entry.position >= validUpTo) {
+            renumberTail();
+        }
+        return entry.position;
+    }
+    
+    /**
+     * Finds the position of a task
+     * @return The list index, or -1 if the task is not in the list
+     */
+    public int indexOf(Task task) {
+        Entry entry = entries.get(task.getId());
+        if (entry == null || entry.task != task) {
+            return -1;
+        }
+        return indexOf(task.getId());
+    }
+    
+    /**
+     * Number of indexed tasks
+     */
+    public int size() {
+        return entries.size();
+    }
+    
+    /**
+     * Recomputes positions for the stale tail of the list
+     */
+    private void renumberTail() {
+        for (int i = validUpTo; i < tasks.size(); i++) {
+            Entry entry = entries.get(tasks.get(i).getId());
+            if (entry != null) {
+                entry.position = i;
+            }
+        }
+        validUpTo = tasks.size();
+    }
+}
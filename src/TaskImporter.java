@@ -0,0 +1,561 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * TaskImporter.java
+ * Streams tasks in from the task file format, CSV or JSON Lines.
+ *
+ * The input is read and parsed one record at a time and handed on in
+ * batches of at most BATCH_SIZE tasks. The batch consumer may block (the
+ * engine does, to keep only a couple of batches queued for the owner
+ * thread), which throttles the reader, so memory stays bounded however
+ * large the file is.
+ *
+ * Formats:
+ *   PIPE   task file lines (id|description|...), as in tasks.txt
+ *   CSV    a header row naming the columns, as written by TaskExporter;
+ *          RFC 4180 quoting, fields may span lines
+ *   JSONL  one flat JSON object per line, as written by TaskExporter
+ * CSV columns and JSON keys are matched ignoring case and underscores
+ * (created_at = createdAt). Only description is required: a missing id
+ * gets a new one, a missing creation time is now, and a missing
+ * modification time is derived as in the Task constructor. Records that
+ * can't be parsed are skipped and counted.
+ *
+ * Task files are pipe-delimited, one task per line, without escaping, so
+ * line breaks in a description are turned into spaces, and records with a
+ * '|' anywhere or a line break in the id or tag are skipped.
+ */
+public class TaskImporter {
+    public static final int BATCH_SIZE = 1000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    /**
+     * Supported import formats
+     */
+    public enum Format {
+        PIPE("txt"),
+        CSV("csv"),
+        JSONL("jsonl");
+        
+        private final String extension;
+        
+        Format(String extension) {
+            this.extension = extension;
+        }
+        
+        public String getExtension() {
+            return extension;
+        }
+        
+        /**
+         * Picks the format from a file name such as tasks.txt or tasks.csv.gz
+         * @return The format, or null if the extension is not recognized
+         */
+        public static Format forFileName(String name) {
+            String lower = name.toLowerCase();
+            if (lower.endsWith(".gz")) {
+                lower = lower.substring(0, lower.length() - 3);
+            }
+            for (Format format : values()) {
+                if (lower.endsWith("." + format.extension)) {
+                    return format;
+                }
+            }
+            return null;
+        }
+    }
+    
+    /**
+     * Receives parsed tasks; may block to slow the reader down
+     */
+    public interface BatchConsumer {
+        /**
+         * @param batch Up to BATCH_SIZE detached tasks, in file order; owned by the consumer
+         * @param progress How far through the input the reader is, 0.0 to 1.0
+         */
+        void accept(List<Task> batch, double progress) throws InterruptedException;
+    }
+    
+    /**
+     * Counts for one import
+     * The reader fills in parsed and skipped, whoever merges the tasks the rest.
+     */
+    public static class Result {
+        long parsed;
+        long skipped;
+        long added;
+        long updated;
+        long unchanged;
+        
+        public long getParsed() { return parsed; }
+        public long getSkipped() { return skipped; }
+        public long getAdded() { return added; }
+        public long getUpdated() { return updated; }
+        /** Tasks that were older than or the same as the ones already there, or repeated in the input */
+        public long getUnchanged() { return unchanged; }
+    }
+    
+    /**
+     * Reads a file, gunzipping it if the name ends in .gz
+     * @param result Receives the parsed and skipped counts
+     * @throws IOException if reading fails
+     * @throws InterruptedException if the consumer was interrupted while waiting
+     */
+    public static void importFile(File file, Format format, BatchConsumer consumer, Result result)
+            throws IOException, InterruptedException {
+        CountingInputStream counter = null;
+        try {
+            counter = new CountingInputStream(new FileInputStream(file));
+            InputStream in = counter;
+            if (file.getName().toLowerCase().endsWith(".gz")) {
+                in = new GZIPInputStream(in, BUFFER_SIZE);
+            }
+            read(in, format, counter, Math.max(1, file.length()), consumer, result);
+        } finally {
+            if (counter != null) {
+                try {
+                    counter.close();
+                } catch (IOException e) {
+                    System.err.println("Error closing import file: " + e.getMessage());
+                }
+            }
+        }
+    }
+    
+    /**
+     * Reads tasks from a UTF-8 stream, which is left open
+     * @param result Receives the parsed and skipped counts
+     * @throws IOException if reading fails
+     * @throws InterruptedException if the consumer was interrupted while waiting
+     */
+    public static void importStream(InputStream in, Format format, BatchConsumer consumer, Result result)
+            throws IOException, InterruptedException {
+        read(in, format, null, 0, consumer, result);
+    }
+    
+    private static void read(InputStream in, Format format, CountingInputStream counter, long length,
+                             BatchConsumer consumer, Result result) throws IOException, InterruptedException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+        RecordParser parser;
+        switch (format) {
+            case CSV:
+                parser = new CsvParser(reader);
+                break;
+            case JSONL:
+                parser = new JsonLineParser(reader);
+                break;
+            default:
+                parser = new PipeParser(reader);
+                break;
+        }
+        
+        List<Task> batch = new ArrayList<>(BATCH_SIZE);
+        while (true) {
+            Task task;
+            try {
+                task = parser.next();
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                result.skipped++;
+                System.err.println("Skipping task at line " + parser.lineNumber() + ": " + e.getMessage());
+                continue;
+            }
+            if (task == null) {
+                break;
+            }
+            result.parsed++;
+            batch.add(task);
+            if (batch.size() == BATCH_SIZE) {
+                consumer.accept(batch, progress(counter, length));
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+        if (!batch.isEmpty()) {
+            consumer.accept(batch, 1.0);
+        }
+    }
+    
+    private static double progress(CountingInputStream counter, long length) {
+        return counter == null ? 0.0 : Math.min(1.0, (double) counter.count / length);
+    }
+    
+    /**
+     * Builds a task from named fields (keys normalized, values null when missing)
+     */
+    private static Task toTask(Map<String, String> fields) {
+        String description = fields.get("description");
+        if (description == null) {
+            throw new IllegalArgumentException("no description");
+        }
+        description = storable(description.replace("\r\n", " ").replace('\r', ' ').replace('\n', ' '),
+                               "description");
+        String id = storable(fields.get("id"), "id");
+        if (id == null || id.isBlank()) {
+            id = UUID.randomUUID().toString();
+        }
+        LocalDateTime createdAt = parseDate(fields.get("createdat"));
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now().withNano(0);
+        }
+        LocalDateTime completedAt = parseDate(fields.get("completedat"));
+        String completedText = fields.get("completed");
+        boolean completed = completedText != null ? Boolean.parseBoolean(completedText.trim()) : completedAt != null;
+        if (!completed) {
+            completedAt = null;
+        }
+        String tag = storable(fields.get("tag"), "tag");
+        String order = fields.get("displayorder");
+        int displayOrder;
+        try {
+            displayOrder = order == null || order.isBlank() ? 0 : Integer.parseInt(order.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("bad display order '" + order + "'");
+        }
+        return new Task(id, description, createdAt, completed, completedAt,
+                        tag == null || tag.isBlank() ? Task.TAG_NONE : tag,
+                        parseDate(fields.get("duedate")), displayOrder, parseDate(fields.get("modifiedat")));
+    }
+    
+    /**
+     * Checks a field can be written to a task file line as it is
+     * @throws IllegalArgumentException if it contains a '|' or a line break
+     */
+    private static String storable(String value, String field) {
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '|' || c == '\n' || c == '\r') {
+                    throw new IllegalArgumentException(field + (c == '|' ? " contains '|'" : " contains a line break"));
+                }
+            }
+        }
+        return value;
+    }
+    
+    /**
+     * Parses an ISO-8601 local date-time; a space instead of the T is accepted too
+     * @return The date-time, or null for an empty field or "null"
+     */
+    private static LocalDateTime parseDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        value = value.trim();
+        if (value.isEmpty() || value.equals("null")) {
+            return null;
+        }
+        // Stored timestamps have whole seconds, so the import compares equal to a saved copy
+        return LocalDateTime.parse(value.replace(' ', 'T')).withNano(0);
+    }
+    
+    /**
+     * Lowercases a column or key name and drops underscores
+     */
+    private static String normalizeKey(String key) {
+        StringBuilder sb = new StringBuilder(key.length());
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c != '_' && c != '\uFEFF') {
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString().trim();
+    }
+    
+    /**
+     * Pulls one task at a time from the reader
+     */
+    private abstract static class RecordParser {
+        protected final BufferedReader reader;
+        protected long lineNumber = 0;
+        
+        RecordParser(BufferedReader reader) {
+            this.reader = reader;
+        }
+        
+        /**
+         * @return The next task, or null at the end of the input
+         * @throws IllegalArgumentException if the current record is malformed; the next call moves on
+         */
+        abstract Task next() throws IOException;
+        
+        long lineNumber() {
+            return lineNumber;
+        }
+        
+        /**
+         * The next non-blank line, or null at the end
+         */
+        protected String nextLine() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                lineNumber++;
+            } while (line != null && line.isBlank());
+            return line;
+        }
+    }
+    
+    private static class PipeParser extends RecordParser {
+        PipeParser(BufferedReader reader) {
+            super(reader);
+        }
+        
+        @Override
+        Task next() throws IOException {
+            String line = nextLine();
+            if (line == null) {
+                return null;
+            }
+            Task task = Task.fromFileString(line);
+            if (task == null) {
+                throw new IllegalArgumentException("not a task line");
+            }
+            return task;
+        }
+    }
+    
+    private static class CsvParser extends RecordParser {
+        private String[] columns; // Normalized names from the header row
+        private final List<String> values = new ArrayList<>();
+        private final StringBuilder field = new StringBuilder();
+        private final Map<String, String> fields = new HashMap<>();
+        
+        CsvParser(BufferedReader reader) {
+            super(reader);
+        }
+        
+        @Override
+        Task next() throws IOException {
+            if (columns == null) {
+                if (!readRecord()) {
+                    return null;
+                }
+                columns = new String[values.size()];
+                for (int i = 0; i < columns.length; i++) {
+                    columns[i] = normalizeKey(values.get(i));
+                }
+            }
+            if (!readRecord()) {
+                return null;
+            }
+            fields.clear();
+            for (int i = 0; i < columns.length && i < values.size(); i++) {
+                fields.put(columns[i], values.get(i));
+            }
+            return toTask(fields);
+        }
+        
+        /**
+         * Splits the next record into values, reading on while a quoted field is open
+         * @return false at the end of the input
+         */
+        private boolean readRecord() throws IOException {
+            String line = nextLine();
+            if (line == null) {
+                return false;
+            }
+            values.clear();
+            field.setLength(0);
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == line.length()) {
+                    if (!quoted) {
+                        break;
+                    }
+                    // A line break inside quotes belongs to the field
+                    line = reader.readLine();
+                    lineNumber++;
+                    if (line == null) {
+                        throw new IllegalArgumentException("unterminated quoted field");
+                    }
+                    field.append('\n');
+                    i = 0;
+                    continue;
+                }
+                char c = line.charAt(i++);
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            values.add(field.toString());
+            return true;
+        }
+    }
+    
+    /**
+     * Reads flat JSON objects: string, number, boolean and null values only
+     */
+    private static class JsonLineParser extends RecordParser {
+        private final Map<String, String> fields = new HashMap<>();
+        private final StringBuilder text = new StringBuilder();
+        private String line;
+        private int pos;
+        
+        JsonLineParser(BufferedReader reader) {
+            super(reader);
+        }
+        
+        @Override
+        Task next() throws IOException {
+            line = nextLine();
+            if (line == null) {
+                return null;
+            }
+            pos = 0;
+            fields.clear();
+            expect('{');
+            skipSpace();
+            if (peek() != '}') {
+                while (true) {
+                    skipSpace();
+                    String key = readString();
+                    expect(':');
+                    fields.put(normalizeKey(key), readValue());
+                    skipSpace();
+                    if (peek() == ',') {
+                        pos++;
+                    } else {
+                        break;
+                    }
+                }
+            }
+            expect('}');
+            return toTask(fields);
+        }
+        
+        private String readValue() {
+            skipSpace();
+            char c = peek();
+            if (c == '"') {
+                return readString();
+            }
+            int start = pos;
+            while (pos < line.length() && ",} \t".indexOf(line.charAt(pos)) < 0) {
+                pos++;
+            }
+            String literal = line.substring(start, pos);
+            if (literal.isEmpty() || literal.equals("{") || literal.startsWith("[")) {
+                throw new IllegalArgumentException("unsupported value at column " + (start + 1));
+            }
+            return literal.equals("null") ? null : literal;
+        }
+        
+        private String readString() {
+            expect('"');
+            text.setLength(0);
+            while (true) {
+                if (pos >= line.length()) {
+                    throw new IllegalArgumentException("unterminated string");
+                }
+                char c = line.charAt(pos++);
+                if (c == '"') {
+                    return text.toString();
+                }
+                if (c != '\\') {
+                    text.append(c);
+                    continue;
+                }
+                if (pos >= line.length()) {
+                    throw new IllegalArgumentException("unterminated string");
+                }
+                char escaped = line.charAt(pos++);
+                switch (escaped) {
+                    case 'n': text.append('\n'); break;
+                    case 'r': text.append('\r'); break;
+                    case 't': text.append('\t'); break;
+                    case 'b': text.append('\b'); break;
+                    case 'f': text.append('\f'); break;
+                    case 'u':
+                        if (pos + 4 > line.length()) {
+                            throw new IllegalArgumentException("bad \\u escape");
+                        }
+                        text.append((char) Integer.parseInt(line, pos, pos + 4, 16));
+                        pos += 4;
+                        break;
+                    default:
+                        // \" \\ \/
+                        text.append(escaped);
+                        break;
+                }
+            }
+        }
+        
+        private void expect(char c) {
+            skipSpace();
+            if (peek() != c) {
+                throw new IllegalArgumentException("expected '" + c + "' at column " + (pos + 1));
+            }
+            pos++;
+        }
+        
+        private char peek() {
+            return pos < line.length() ? line.charAt(pos) : '\0';
+        }
+        
+        private void skipSpace() {
+            while (pos < line.length() && Character.isWhitespace(line.charAt(pos))) {
+                pos++;
+            }
+        }
+    }
+    
+    /**
+     * Counts the bytes read from the file, for progress
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private long count = 0;
+        
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+        
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+        
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+        
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.function.Predicate;
+import javafx.collections.ModifiableObservableListBase;
+
+/**
+ * TaskList.java
+ * The observable task list, with batched bulk changes.
+ *
+ * Behaves like FXCollections.observableArrayList(), except that:
+ *   removeAll / removeIf drop all matching tasks in one pass and one change
+ *     (the stock removeIf fires a separate change per removed task)
+ *   fireUpdated reports tasks edited in place as one update change, so the
+ *     FilteredList views re-check just those rows, without the remove/add
+ *     churn of set()
+ */
+public class TaskList extends ModifiableObservableListBase<Task> {
+    private ArrayList<Task> tasks = new ArrayList<>();
+    
+    @Override
+    public Task get(int index) {
+        return tasks.get(index);
+    }
+    
+    @Override
+    public int size() {
+        return tasks.size();
+    }
+    
+    @Override
+    protected void doAdd(int index, Task task) {
+        tasks.add(index, task);
+    }
+    
+    @Override
+    protected Task doSet(int index, Task task) {
+        return tasks.set(index, task);
+    }
+    
+    @Override
+    protected Task doRemove(int index) {
+        return tasks.remove(index);
+    }
+    
+    @Override
+    public boolean removeAll(Collection<?> toRemove) {
+        return removeIf(toRemove::contains);
+    }
+    
+    /**
+     * Removes every matching task in a single pass and a single list change
+     */
+    @Override
+    public boolean removeIf(Predicate<? super Task> filter) {
+        // Test everything first, so a failing filter leaves the list untouched
+        BitSet removed = new BitSet(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            if (filter.test(tasks.get(i))) {
+                removed.set(i);
+            }
+        }
+        if (removed.isEmpty()) {
+            return false;
+        }
+        
+        ArrayList<Task> kept = new ArrayList<>(tasks.size() - removed.cardinality());
+        beginChange();
+        try {
+            int i = 0;
+            while (i < tasks.size()) {
+                int runStart = removed.nextSetBit(i);
+                int end = runStart < 0 ? tasks.size() : runStart;
+                kept.addAll(tasks.subList(i, end));
+                if (runStart < 0) {
+                    break;
+                }
+                int runEnd = removed.nextClearBit(runStart);
+                // Reported in order, so each run's index already excludes the runs before it
+                nextRemove(kept.size(), new ArrayList<>(tasks.subList(runStart, runEnd)));
+                i = runEnd;
+            }
+            tasks = kept;
+            modCount++;
+        } finally {
+            endChange();
+        }
+        return true;
+    }
+    
+    /**
+     * Tells listeners that tasks were edited in place
+     * @param indexes Positions of the edited tasks, ascending
+     */
+    public void fireUpdated(int[] indexes) {
+        if (indexes.length == 0) {
+            return;
+        }
+        beginChange();
+        try {
+            for (int index : indexes) {
+                nextUpdate(index);
+            }
+        } finally {
+            endChange();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+/**
+ * TaskListener.java
+ * Callback for changes made to a task through its setters
+ */
+public interface TaskListener {
+    /**
+     * Called after a task field has changed
+     * @param task The task that changed
+     * @param property One of the Task.PROP_* names
+     * @param oldValue Value before the change
+     * @param newValue Value after the change
+     */
+    void taskChanged(Task task, String property, Object oldValue, Object newValue);
+}
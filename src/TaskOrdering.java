@@ -0,0 +1,67 @@
+import java.util.List;
+
+/**
+ * TaskOrdering.java
+ * Sparse display ordering for drag & drop.
+ *
+ * Display orders are spaced ORDER_GAP apart, so moving a task only gives
+ * that task a new order halfway between its new neighbours; no other task
+ * changes. When two neighbours run out of room the whole list is spread
+ * out again, which happens roughly once every log2(ORDER_GAP) moves into
+ * the same spot.
+ */
+public class TaskOrdering {
+    public static final int ORDER_GAP = 1024;
+    
+    // Returned when there is no free order between two neighbours
+    public static final int NO_GAP = Integer.MIN_VALUE;
+    
+    /**
+     * Picks an order strictly between two neighbours
+     * @param before Task just above the new position, or null at the top
+     * @param after Task just below the new position, or null at the bottom
+     * @return The new display order, or NO_GAP if the list needs rebalancing
+     */
+    public static int orderBetween(Task before, Task after) {
+        if (before == null && after == null) {
+            return ORDER_GAP;
+        }
+        // At either end, step a full gap if there is room, otherwise half the remaining room
+        if (before == null) {
+            long room = (long) after.getDisplayOrder() - NO_GAP - 1;
+            long step = Math.min(ORDER_GAP, room / 2);
+            return step >= 1 ? (int) (after.getDisplayOrder() - step) : NO_GAP;
+        }
+        if (after == null) {
+            long room = (long) Integer.MAX_VALUE - before.getDisplayOrder();
+            long step = Math.min(ORDER_GAP, room / 2);
+            return step >= 1 ? (int) (before.getDisplayOrder() + step) : NO_GAP;
+        }
+        
+        long low = before.getDisplayOrder();
+        long high = after.getDisplayOrder();
+        if (high - low < 2) {
+            return NO_GAP;
+        }
+        return (int) ((low + high) / 2);
+    }
+    
+    /**
+     * Picks the order for a task appended to the end of the list
+     * @return The new display order, or NO_GAP if the list needs rebalancing
+     */
+    public static int nextOrder(List<Task> tasks) {
+        return orderBetween(tasks.isEmpty() ? null : tasks.get(tasks.size() - 1), null);
+    }
+    
+    /**
+     * Spreads the display orders of the list out evenly, in list order
+     * @param tasks Tasks in display order
+     */
+    public static void rebalance(List<Task> tasks) {
+        long gap = Math.min(ORDER_GAP, Integer.MAX_VALUE / (tasks.size() + 2L));
+        for (int i = 0; i < tasks.size(); i++) {
+            tasks.get(i).setDisplayOrder((int) ((i + 1) * gap));
+        }
+    }
+}
@@ -0,0 +1,126 @@
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * TaskRenderCache.java
+ * Memoized display state for task list cells.
+ *
+ * A cell asks for a task's RenderState on every updateItem, which runs on
+ * each scroll and refresh. The formatted dates, detail line, badge texts
+ * and style classes are worked out once per task version (Task.getVersion)
+ * and reused until the task is edited. The due badge also depends on the
+ * clock, so it remembers until when it is valid and is redone only after
+ * that moment passes.
+ *
+ * Entries are keyed by task id, kept in access order and capped at
+ * MAX_ENTRIES. Used on the FX thread only.
+ */
+public class TaskRenderCache {
+    public static final int MAX_ENTRIES = 4096;
+    
+    // Date formatters
+    private static final DateTimeFormatter DISPLAY_FORMATTER = DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm");
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMM dd, yyyy");
+    
+    /**
+     * Everything a cell shows for one version of a task
+     */
+    public static class RenderState {
+        private final Task task;
+        private final int version;
+        private final String descriptionStyleClass;
+        private final String details;
+        private final String completeButtonText;
+        private final String tagText; // null when the task has no tag
+        private final String tagStyleClass;
+        
+        // Due badge as of the last check; dueText is null when there is no badge
+        private String dueText;
+        private String dueStyleClass;
+        private LocalDateTime dueValidUntil;
+        
+        private RenderState(Task task) {
+            this.task = task;
+            this.version = task.getVersion();
+            this.descriptionStyleClass = task.isCompleted() ? "task-content-completed" : "task-content";
+            
+            String details = "Created: " + task.getCreatedAt().format(DISPLAY_FORMATTER);
+            if (task.isCompleted() && task.getCompletedAt() != null) {
+                details += " • Completed: " + task.getCompletedAt().format(DISPLAY_FORMATTER);
+            }
+            this.details = details;
+            this.completeButtonText = task.isCompleted() ? "↩️" : "✓";
+            
+            Tag tag = Tag.byId(task.getTagId());
+            this.tagText = tag != Tag.NONE ? "🏷️ " + tag.getName() : null;
+            this.tagStyleClass = tag.getStyleClass();
+        }
+        
+        public String getDescriptionStyleClass() { return descriptionStyleClass; }
+        public String getDetails() { return details; }
+        public String getCompleteButtonText() { return completeButtonText; }
+        public String getTagText() { return tagText; }
+        public String getTagStyleClass() { return tagStyleClass; }
+        public String getDueText() { return dueText; }
+        public String getDueStyleClass() { return dueStyleClass; }
+        
+        /**
+         * Redoes the due badge if the clock has moved it to another state
+         * Same rules as Task.isOverdue / isDueSoon.
+         */
+        private void refreshDue(LocalDateTime now) {
+            if (dueValidUntil != null && !now.isAfter(dueValidUntil)) {
+                return;
+            }
+            LocalDateTime dueDate = task.getDueDate();
+            if (dueDate == null || task.isCompleted()) {
+                dueText = null;
+                dueStyleClass = null;
+                dueValidUntil = LocalDateTime.MAX;
+            } else if (now.isAfter(dueDate)) {
+                dueText = "⚠️ OVERDUE";
+                dueStyleClass = "due-badge-overdue";
+                dueValidUntil = LocalDateTime.MAX;
+            } else if (now.isBefore(dueDate) && now.plusHours(24).isAfter(dueDate)) {
+                dueText = "⏰ Due Soon";
+                dueStyleClass = "due-badge-soon";
+                dueValidUntil = dueDate;
+            } else {
+                dueText = "📅 Due: " + dueDate.format(DATE_FORMATTER);
+                dueStyleClass = "due-badge-normal";
+                dueValidUntil = now.isBefore(dueDate) ? dueDate.minusHours(24) : dueDate;
+            }
+        }
+    }
+    
+    private final Map<String, RenderState> entries = new LinkedHashMap<String, RenderState>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, RenderState> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    
+    /**
+     * Gets the render state for a task, reusing the cached one if the task is unchanged
+     * The same object comes back until the task is edited; only its due badge
+     * fields may have moved on in the meantime.
+     */
+    public RenderState get(Task task) {
+        RenderState state = entries.get(task.getId());
+        if (state == null || state.task != task || state.version != task.getVersion()) {
+            state = new RenderState(task);
+            entries.put(task.getId(), state);
+        }
+        state.refreshDue(LocalDateTime.now());
+        return state;
+    }
+    
+    /**
+     * Drops every cached state
+     */
+    public void clear() {
+        entries.clear();
+    }
+}
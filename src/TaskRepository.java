@@ -0,0 +1,168 @@
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import javafx.collections.ListChangeListener;
+
+/**
+ * TaskRepository.java
+ * The task list, shared safely between the FX thread and background workers.
+ *
+ * The live ObservableList is only touched on the owner thread (the FX
+ * thread). Other threads read an immutable Snapshot tagged with a version
+ * number. Snapshots are built lazily: a mutation only bumps the version,
+ * and publishNow builds a new snapshot when a save or export asks for one
+ * and something changed since the last.
+ *
+ * A snapshot is a columnar base (TaskColumns) plus an overlay of detached
+ * copies of the tasks changed since the base was built. Once the overlay
+ * grows past a fraction of the base, the base is rebuilt. A snapshot of a
+ * large store so costs a dozen arrays instead of a second set of Task
+ * objects for the GC to trace; the live list itself is not made any
+ * smaller. Each live task remembers its base row in Task.snapshotRow.
+ */
+public class TaskRepository implements TaskListener {
+    // Rebuild the columnar base once more than this many tasks (plus a fraction of the base) changed
+    private static final int REBUILD_MIN_CHANGES = 64;
+    private static final int REBUILD_FRACTION = 8;
+    
+    /**
+     * An immutable view of the tasks at one version
+     * The tasks are detached and built on each get(), so changing them has
+     * no effect on the repository or on any snapshot.
+     */
+    public static class Snapshot {
+        private final long version;
+        private final TaskColumns base;
+        private final int[] order; // row in base, or -(overlay index + 1); null when the base is in order
+        private final Task[] overlay;
+        
+        Snapshot(long version, TaskColumns base, int[] order, Task[] overlay) {
+            this.version = version;
+            this.base = base;
+            this.order = order;
+            this.overlay = overlay;
+        }
+        
+        public long getVersion() {
+            return version;
+        }
+        
+        public List<Task> getTasks() {
+            return new SnapshotList();
+        }
+        
+        private class SnapshotList extends AbstractList<Task> implements RandomAccess {
+            @Override
+            public Task get(int index) {
+                if (order == null) {
+                    return base.getTask(index);
+                }
+                int row = order[index];
+                // Overlay copies are shared with later snapshots, so hand out a copy of the copy
+                return row >= 0 ? base.getTask(row) : overlay[-row - 1].copy();
+            }
+            
+            @Override
+            public int size() {
+                return order != null ? order.length : base.size();
+            }
+        }
+    }
+    
+    private final TaskList tasks = new TaskList();
+    
+    // Owner thread only. A live task is either unchanged since the base was built
+    // (snapshotRow >= 0) or changed and in changedCopies (copy is null until re-copied)
+    private TaskColumns base = TaskColumns.of(Collections.emptyList());
+    private final Map<Task, Task> changedCopies = new IdentityHashMap<>();
+    private long version = 0;
+    private Snapshot snapshot = new Snapshot(0, base, null, new Task[0]);
+    
+    public TaskRepository() {
+        tasks.addListener((ListChangeListener<Task>) change -> {
+            while (change.next()) {
+                for (Task task : change.getRemoved()) {
+                    task.snapshotRow = -1;
+                    changedCopies.remove(task);
+                }
+                for (Task task : change.getAddedSubList()) {
+                    task.snapshotRow = -1;
+                    changedCopies.put(task, null);
+                }
+            }
+            modified();
+        });
+    }
+    
+    /**
+     * The live task list; read and modify it on the owner thread only
+     */
+    public TaskList getTasks() {
+        return tasks;
+    }
+    
+    /**
+     * Marks a task for re-copying after it was edited in place
+     */
+    @Override
+    public void taskChanged(Task task, String property, Object oldValue, Object newValue) {
+        task.snapshotRow = -1;
+        changedCopies.put(task, null);
+        modified();
+    }
+    
+    /**
+     * Returns a snapshot of the current tasks, building one if anything changed
+     * Call on the owner thread, e.g. before handing the tasks to a save; the
+     * snapshot itself can then be read from any thread.
+     */
+    public Snapshot publishNow() {
+        if (snapshot.getVersion() == version) {
+            return snapshot;
+        }
+        
+        if (changedCopies.size() > REBUILD_MIN_CHANGES + base.size() / REBUILD_FRACTION) {
+            rebuildBase();
+            snapshot = new Snapshot(version, base, null, new Task[0]);
+            return snapshot;
+        }
+        
+        for (Map.Entry<Task, Task> entry : changedCopies.entrySet()) {
+            if (entry.getValue() == null) {
+                entry.setValue(entry.getKey().copy());
+            }
+        }
+        int[] order = new int[tasks.size()];
+        Task[] overlay = new Task[changedCopies.size()];
+        int overlaySize = 0;
+        for (int i = 0; i < order.length; i++) {
+            Task task = tasks.get(i);
+            if (task.snapshotRow >= 0) {
+                order[i] = task.snapshotRow;
+            } else {
+                overlay[overlaySize++] = changedCopies.get(task);
+                order[i] = -overlaySize;
+            }
+        }
+        snapshot = new Snapshot(version, base, order, overlay);
+        return snapshot;
+    }
+    
+    /**
+     * Re-encodes every live task into a fresh columnar base
+     */
+    private void rebuildBase() {
+        base = TaskColumns.of(tasks);
+        changedCopies.clear();
+        for (int i = 0; i < tasks.size(); i++) {
+            tasks.get(i).snapshotRow = i;
+        }
+    }
+    
+    private void modified() {
+        version++;
+    }
+}
@@ -0,0 +1,153 @@
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * TaskStatistics.java
+ * Incrementally maintained counts for the dashboard.
+ *
+ * The owner reports tasks as they are added and removed, and forwards
+ * TaskListener events for edits, so every count is read in constant time.
+ * Overdue tasks are found by moving a time horizon forward over a sorted
+ * map of upcoming due dates; each task crosses the horizon at most once.
+ *
+ * Methods are synchronized so the notification timer can read counts
+ * while the FX thread updates them.
+ */
+public class TaskStatistics implements TaskListener {
+    private int total = 0;
+    private int completed = 0;
+    private final Map<String, Integer> tagCounts = new HashMap<>();
+    
+    // Pending tasks due before the horizon are counted in overdue;
+    // the rest are counted per due date in upcomingDue
+    private LocalDateTime horizon = LocalDateTime.MIN;
+    private int overdue = 0;
+    private final TreeMap<LocalDateTime, Integer> upcomingDue = new TreeMap<>();
+    
+    /**
+     * Counts a task that joined the collection
+     */
+    public synchronized void taskAdded(Task task) {
+        total++;
+        if (task.isCompleted()) {
+            completed++;
+        } else {
+            addDue(task.getDueDate());
+        }
+        tagCounts.merge(task.getTag(), 1, Integer::sum);
+    }
+    
+    /**
+     * Un-counts a task that left the collection
+     */
+    public synchronized void taskRemoved(Task task) {
+        total--;
+        if (task.isCompleted()) {
+            completed--;
+        } else {
+            removeDue(task.getDueDate());
+        }
+        decrementTag(task.getTag());
+    }
+    
+    /**
+     * Adjusts counts after a task was edited in place
+     */
+    @Override
+    public synchronized void taskChanged(Task task, String property, Object oldValue, Object newValue) {
+        switch (property) {
+            case Task.PROP_COMPLETED:
+                if ((Boolean) newValue) {
+                    completed++;
+                    removeDue(task.getDueDate());
+                } else {
+                    completed--;
+                    addDue(task.getDueDate());
+                }
+                break;
+            case Task.PROP_TAG:
+                decrementTag((String) oldValue);
+                tagCounts.merge((String) newValue, 1, Integer::sum);
+                break;
+            case Task.PROP_DUE_DATE:
+                if (!task.isCompleted()) {
+                    removeDue((LocalDateTime) oldValue);
+                    addDue((LocalDateTime) newValue);
+                }
+                break;
+            default:
+                // Description, display order and modification time don't affect any count
+                break;
+        }
+    }
+    
+    /**
+     * Resets all counts
+     */
+    public synchronized void clear() {
+        total = 0;
+        completed = 0;
+        tagCounts.clear();
+        overdue = 0;
+        upcomingDue.clear();
+    }
+    
+    public synchronized int getTotalCount() {
+        return total;
+    }
+    
+    public synchronized int getCompletedCount() {
+        return completed;
+    }
+    
+    public synchronized int getPendingCount() {
+        return total - completed;
+    }
+    
+    public synchronized int getTagCount(String tag) {
+        return tagCounts.getOrDefault(tag, 0);
+    }
+    
+    /**
+     * Counts pending tasks whose due date has passed (same rule as Task.isOverdue)
+     */
+    public synchronized int getOverdueCount() {
+        LocalDateTime now = LocalDateTime.now();
+        if (now.isAfter(horizon)) {
+            // Move every due date that is now in the past over to the overdue count
+            while (!upcomingDue.isEmpty() && upcomingDue.firstKey().isBefore(now)) {
+                overdue += upcomingDue.pollFirstEntry().getValue();
+            }
+            horizon = now;
+        }
+        return overdue;
+    }
+    
+    private void addDue(LocalDateTime dueDate) {
+        if (dueDate == null) {
+            return;
+        }
+        if (dueDate.isBefore(horizon)) {
+            overdue++;
+        } else {
+            upcomingDue.merge(dueDate, 1, Integer::sum);
+        }
+    }
+    
+    private void removeDue(LocalDateTime dueDate) {
+        if (dueDate == null) {
+            return;
+        }
+        if (dueDate.isBefore(horizon)) {
+            overdue--;
+        } else {
+            upcomingDue.computeIfPresent(dueDate, (key, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+    
+    private void decrementTag(String tag) {
+        tagCounts.computeIfPresent(tag, (key, count) -> count > 1 ? count - 1 : null);
+    }
+}
@@ -1,6 +1,13 @@
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
 /**
  * Theme.java
  * Manages application themes with different color schemes
+ *
+ * Each theme's stylesheet is generated once, on first use, and kept in
+ * memory as a data: URI, so applying a theme never touches the disk and
+ * JavaFX can reuse the parsed sheet when switching back to it.
  */
 public class Theme {
     private String name;
@@ -9,6 +16,7 @@ public class Theme {
     private String accentColor;
     private String gradientStart;
     private String gradientEnd;
+    private String stylesheet; // data: URI, built on first use
     
     public Theme(String name, String primaryColor, String secondaryColor, 
                  String accentColor, String gradientStart, String gradientEnd) {
@@ -28,6 +36,100 @@ public class Theme {
     public String getGradientStart() { return gradientStart; }
     public String getGradientEnd() { return gradientEnd; }
     
+    /**
+     * Inline style for the main container's background gradient
+     */
+    public String getBackgroundStyle() {
+        return "-fx-background-color: linear-gradient(to bottom right, " + gradientStart + ", " + gradientEnd + ");";
+    }
+    
+    /**
+     * Gets the theme's color overrides as a stylesheet URI for Scene.getStylesheets()
+     */
+    public synchronized String getStylesheet() {
+        if (stylesheet == null) {
+            byte[] css = buildStylesheet().getBytes(StandardCharsets.UTF_8);
+            stylesheet = "data:text/css;base64," + Base64.getEncoder().encodeToString(css);
+        }
+        return stylesheet;
+    }
+    
+    /**
+     * Creates the CSS that recolors the app for this theme
+     */
+    private String buildStylesheet() {
+        return String.format(
+            ".button-primary { " +
+            "  -fx-background-color: linear-gradient(to bottom right, %s, %s) !important; " +
+            "  -fx-effect: dropshadow(gaussian, derive(%s, -20%%), 10, 0, 0, 4); " +
+            "} " +
+            ".button-primary:hover { " +
+            "  -fx-background-color: linear-gradient(to bottom right, %s, %s) !important; " +
+            "  -fx-effect: dropshadow(gaussian, derive(%s, -20%%), 15, 0, 0, 6); " +
+            "} " +
+            ".button-secondary { " +
+            "  -fx-text-fill: %s !important; " +
+            "  -fx-border-color: %s !important; " +
+            "} " +
+            ".button-secondary:hover { " +
+            "  -fx-background-color: %s !important; " +
+            "} " +
+            ".stat-total .stat-number { -fx-text-fill: %s !important; } " +
+            ".search-field:focused { " +
+            "  -fx-border-color: %s !important; " +
+            "} " +
+            ".task-list-view .list-cell:hover { " +
+            "  -fx-border-color: %s !important; " +
+            "} " +
+            ".task-list-view .list-cell:selected { " +
+            "  -fx-border-color: %s !important; " +
+            "} " +
+            ".task-button { -fx-text-fill: %s !important; } " +
+            ".form-input:focused { " +
+            "  -fx-border-color: %s !important; " +
+            "} " +
+            ".dialog-pane .header-panel { " +
+            "  -fx-background-color: linear-gradient(to bottom right, %s, %s) !important; " +
+            "}",
+            primaryColor, secondaryColor,
+            primaryColor,
+            secondaryColor, darkenColor(secondaryColor),
+            primaryColor,
+            primaryColor,
+            primaryColor,
+            primaryColor,
+            primaryColor,
+            primaryColor,
+            primaryColor,
+            primaryColor,
+            primaryColor,
+            primaryColor,
+            primaryColor, secondaryColor
+        );
+    }
+    
+    /**
+     * Darkens a color for hover effects
+     */
+    private static String darkenColor(String color) {
+        if (color.startsWith("#") && color.length() == 7) {
+            try {
+                int r = Integer.parseInt(color.substring(1, 3), 16);
+                int g = Integer.parseInt(color.substring(3, 5), 16);
+                int b = Integer.parseInt(color.substring(5, 7), 16);
+                
+                r = Math.max(0, r - 30);
+                g = Math.max(0, g - 30);
+                b = Math.max(0, b - 30);
+                
+                return String.format("#%02x%02x%02x", r, g, b);
+            } catch (Exception e) {
+                return color;
+            }
+        }
+        return color;
+    }
+    
     // Predefined themes
     public static final Theme OCEAN = new Theme(
         "Ocean Blue",
@@ -0,0 +1,91 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * AutoSaverTest.java
+ * Checks which journal records the autosaver writes, and when. The owner
+ * thread is the test thread, and batches are captured instead of written.
+ */
+class AutoSaverTest {
+    private final BlockingQueue<Runnable> ownerQueue = new LinkedBlockingQueue<>();
+    private final List<List<String>> batches = new ArrayList<>();
+    private final PersistenceService persistence = new PersistenceService(ownerQueue::add) {
+        @Override
+        public void appendRecords(List<String> records, Runnable onCompactionDue) {
+            batches.add(records);
+        }
+    };
+    private final AutoSaver autoSaver = new AutoSaver(persistence, ownerQueue::add, () -> { });
+    
+    @AfterEach
+    void stop() {
+        autoSaver.shutdown();
+        persistence.shutdown(1000);
+    }
+    
+    @Test
+    void foldsChangesIntoOneRecordPerTask() {
+        Task saved = new Task("saved");
+        Task removed = new Task("removed");
+        Task added = new Task("added");
+        Task dragged = new Task("dragged");
+        
+        autoSaver.taskAdded(added);
+        autoSaver.taskChanged(added, Task.PROP_DESCRIPTION, "a", "b");
+        autoSaver.taskChanged(saved, Task.PROP_COMPLETED, false, true);
+        autoSaver.taskChanged(saved, Task.PROP_TAG, Task.TAG_NONE, Task.TAG_WORK);
+        autoSaver.taskRemoved(removed);
+        autoSaver.taskRemoved(dragged);
+        autoSaver.taskAdded(dragged);
+        autoSaver.flush();
+        
+        assertEquals(List.of(List.of(FileHelper.addRecord(added), FileHelper.updateRecord(saved),
+                                     FileHelper.updateRecord(dragged), FileHelper.deleteRecord(removed.getId()))),
+                     batches);
+    }
+    
+    @Test
+    void writesNothingForTasksThatCameAndWent() {
+        Task task = new Task("short-lived");
+        autoSaver.taskAdded(task);
+        autoSaver.taskChanged(task, Task.PROP_DESCRIPTION, "a", "b");
+        autoSaver.taskRemoved(task);
+        autoSaver.flush();
+        
+        assertTrue(batches.isEmpty());
+    }
+    
+    @Test
+    void discardedChangesAreNotWritten() {
+        autoSaver.taskAdded(new Task("covered by a snapshot"));
+        autoSaver.discardPending();
+        autoSaver.flush();
+        
+        assertTrue(batches.isEmpty());
+    }
+    
+    @Test
+    void waitsForAQuietPeriodAfterTheLastChange() throws InterruptedException {
+        Task task = new Task("typing");
+        autoSaver.taskChanged(task, Task.PROP_DESCRIPTION, "", "t");
+        long start = System.nanoTime();
+        Thread.sleep(AutoSaver.QUIET_PERIOD_MS / 2);
+        autoSaver.taskChanged(task, Task.PROP_DESCRIPTION, "t", "ty");
+        
+        // The first timer finds a change too recent and waits again
+        ownerQueue.poll(AutoSaver.QUIET_PERIOD_MS * 2, TimeUnit.MILLISECONDS).run();
+        assertTrue(batches.isEmpty());
+        
+        ownerQueue.poll(AutoSaver.QUIET_PERIOD_MS * 2, TimeUnit.MILLISECONDS).run();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertEquals(1, batches.size());
+        assertTrue(elapsedMillis >= AutoSaver.QUIET_PERIOD_MS * 3 / 2, "flushed after " + elapsedMillis + " ms");
+    }
+}
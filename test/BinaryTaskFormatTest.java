@@ -0,0 +1,82 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * BinaryTaskFormatTest.java
+ * Round trips through the binary snapshot format.
+ */
+class BinaryTaskFormatTest {
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 3, 1, 9, 30, 0);
+    
+    @Test
+    void roundTripKeepsEveryTask() throws IOException {
+        List<Task> tasks = List.of(
+            new Task("0b7c5c8e-59a4-4a3e-8f3e-2a9f3b7c1d20", "UUID id, completed", CREATED, true,
+                     CREATED.plusDays(1), Task.TAG_URGENT, CREATED.plusDays(2), 1024, CREATED.plusDays(1)),
+            new Task("not-a-uuid", "Text id, custom tag, ünïcödé ✓", CREATED, false,
+                     null, "Reading Group", null, 2048, CREATED.plusHours(3)),
+            new Task("another-id", "", CREATED, false, null, Task.TAG_NONE, null, -5, CREATED)
+        );
+        
+        List<Task> read = read(write(tasks));
+        
+        assertEquals(tasks.size(), read.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i).toFileString(), read.get(i).toFileString());
+        }
+    }
+    
+    @Test
+    void emptyListRoundTrips() throws IOException {
+        assertTrue(read(write(List.of())).isEmpty());
+    }
+    
+    @Test
+    void rejectsTruncatedData() throws IOException {
+        byte[] bytes = write(List.of(new Task("id", "Cut short", CREATED, false, null, Task.TAG_NONE, null, 1)));
+        byte[] truncated = java.util.Arrays.copyOf(bytes, bytes.length - 3);
+        
+        assertThrows(IOException.class, () -> read(truncated));
+    }
+    
+    @Test
+    void rejectsOtherFiles() {
+        byte[] text = "id|desc|2024-03-01 09:30:00|false|null|None|null|0\n".getBytes();
+        
+        assertThrows(IOException.class, () -> read(text));
+    }
+    
+    @Test
+    void rejectsCountsAndLengthsPastTheEnd() throws IOException {
+        byte[] bytes = write(List.of(new Task("id", "Corrupt me", CREATED, false, null, Task.TAG_NONE, null, 1)));
+        
+        // Task count, right after magic and version
+        byte[] hugeCount = bytes.clone();
+        ByteBuffer.wrap(hugeCount).putInt(5, Integer.MAX_VALUE);
+        IOException countError = assertThrows(IOException.class, () -> read(hugeCount));
+        assertTrue(countError.getMessage().contains("count"));
+        
+        // Length of the id string, after the task's flags byte
+        byte[] hugeLength = bytes.clone();
+        ByteBuffer.wrap(hugeLength).putInt(10, Integer.MAX_VALUE - 8);
+        IOException lengthError = assertThrows(IOException.class, () -> read(hugeLength));
+        assertTrue(lengthError.getMessage().contains("length"));
+    }
+    
+    private static List<Task> read(byte[] bytes) throws IOException {
+        return BinaryTaskFormat.read(new ByteArrayInputStream(bytes), bytes.length);
+    }
+    
+    private static byte[] write(List<Task> tasks) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryTaskFormat.write(tasks, out);
+        return out.toByteArray();
+    }
+}
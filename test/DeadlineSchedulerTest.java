@@ -0,0 +1,77 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * DeadlineSchedulerTest.java
+ * Checks which deadline events fire, with due dates a fraction of a second away.
+ */
+class DeadlineSchedulerTest {
+    private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+    private final DeadlineScheduler scheduler = new DeadlineScheduler((overdue, dueSoon) -> {
+        overdue.forEach(task -> events.add("overdue " + task.getDescription()));
+        dueSoon.forEach(task -> events.add("due soon " + task.getDescription()));
+    }, Runnable::run);
+    
+    @AfterEach
+    void stop() {
+        scheduler.shutdown();
+    }
+    
+    @Test
+    void firesWhenTasksGoOverdueOrDueSoon() throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        add(new Task("1", "first", now, false, null, Task.TAG_NONE, now.plusNanos(700_000_000), 1));
+        add(new Task("2", "second", now, false, null, Task.TAG_NONE, now.plusNanos(150_000_000), 2));
+        add(new Task("3", "tomorrow", now, false, null, Task.TAG_NONE,
+                     now.plusHours(DeadlineScheduler.DUE_SOON_HOURS).plusNanos(400_000_000), 3));
+        
+        assertEquals("overdue second", next());
+        assertEquals("due soon tomorrow", next());
+        assertEquals("overdue first", next());
+        assertNull(events.poll(300, TimeUnit.MILLISECONDS));
+    }
+    
+    @Test
+    void completedRemovedAndRescheduledTasksDoNotFire() throws InterruptedException {
+        LocalDateTime soon = LocalDateTime.now().plusNanos(200_000_000);
+        Task completed = add(new Task("1", "completed", soon, false, null, Task.TAG_NONE, soon, 1));
+        Task removed = add(new Task("2", "removed", soon, false, null, Task.TAG_NONE, soon, 2));
+        Task moved = add(new Task("3", "moved", soon, false, null, Task.TAG_NONE, soon, 3));
+        Task kept = add(new Task("4", "kept", soon, false, null, Task.TAG_NONE, soon.plusNanos(100_000_000), 4));
+        
+        completed.setCompleted(true);
+        scheduler.taskRemoved(removed);
+        moved.setDueDate(soon.plusDays(7));
+        
+        assertEquals("overdue kept", next());
+        assertNull(events.poll(300, TimeUnit.MILLISECONDS));
+        assertTrue(kept.isOverdue());
+    }
+    
+    @Test
+    void alreadyOverdueTasksAreLeftToTheOwner() throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        add(new Task("1", "late", now, false, null, Task.TAG_NONE, now.minusMinutes(1), 1));
+        
+        assertNull(events.poll(300, TimeUnit.MILLISECONDS));
+    }
+    
+    private Task add(Task task) {
+        scheduler.taskAdded(task);
+        task.setListener(scheduler);
+        return task;
+    }
+    
+    private String next() throws InterruptedException {
+        String event = events.poll(5, TimeUnit.SECONDS);
+        assertNotNull(event, "timed out waiting for a deadline");
+        return event;
+    }
+}
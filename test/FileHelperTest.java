@@ -0,0 +1,231 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * FileHelperTest.java
+ * Snapshot and journal round trips through FileHelper, in a temporary folder.
+ */
+class FileHelperTest {
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 3, 1, 9, 30, 0);
+    
+    @TempDir
+    Path folder;
+    
+    @BeforeEach
+    void useTemporaryFolder() throws IOException {
+        FileHelper.setDataDirectory(folder.toFile());
+        FileHelper.setSyncPolicy(FileHelper.SyncPolicy.NONE);
+        FileHelper.setBackupCount(2);
+        // Resets the journal record count left over from other tests
+        FileHelper.loadTasks();
+    }
+    
+    @AfterEach
+    void restoreDefaults() {
+        FileHelper.setDataDirectory(null);
+        FileHelper.setSyncPolicy(FileHelper.SyncPolicy.BATCHED);
+    }
+    
+    @Test
+    void textSnapshotRoundTrips() throws IOException {
+        List<Task> tasks = tasks(50);
+        
+        FileHelper.saveTasks(tasks);
+        
+        assertSameTasks(tasks, FileHelper.loadTasks());
+    }
+    
+    @Test
+    void binarySnapshotRoundTrips() throws IOException {
+        List<Task> tasks = tasks(50);
+        FileHelper.saveTasks(tasks);
+        
+        assertEquals(50, FileHelper.convertToBinary());
+        assertSameTasks(tasks, FileHelper.loadTasks());
+        
+        // Saving keeps the binary format
+        tasks.get(0).setDescription("Changed after conversion");
+        FileHelper.saveTasks(tasks);
+        assertSameTasks(tasks, FileHelper.loadTasks());
+        
+        assertEquals(50, FileHelper.convertToText());
+        assertSameTasks(tasks, FileHelper.loadTasks());
+    }
+    
+    @Test
+    void largeSnapshotLoadsInParallelInOrder() throws IOException {
+        // Big enough for the chunked loader, with one line longer than a chunk
+        List<Task> tasks = new ArrayList<>();
+        String padding = "x".repeat(200);
+        for (int i = 0; i < 30000; i++) {
+            tasks.add(new Task("id-" + i, "Task " + i + " " + padding, CREATED.plusSeconds(i), i % 3 == 0,
+                               i % 3 == 0 ? CREATED.plusDays(1) : null, Task.ALL_TAGS[i % Task.ALL_TAGS.length],
+                               null, (i + 1) * 1024));
+        }
+        tasks.get(12345).setDescription("Long line " + "y".repeat(3 * 1024 * 1024));
+        FileHelper.saveTasks(tasks);
+        assertTrue(Files.size(folder.resolve("tasks.txt")) > 4L * 1024 * 1024);
+        
+        assertSameTasks(tasks, FileHelper.loadTasks());
+    }
+    
+    @Test
+    void journalReplaysAddsUpdatesAndDeletes() throws IOException {
+        List<Task> tasks = tasks(3);
+        FileHelper.saveTasks(tasks);
+        
+        Task added = new Task("id-new", "Added later", CREATED, false, null, Task.TAG_WORK, null, 4096);
+        tasks.get(1).setDescription("Edited");
+        tasks.get(1).setCompleted(true);
+        FileHelper.appendRecords(List.of(
+            FileHelper.addRecord(added),
+            FileHelper.updateRecord(tasks.get(1)),
+            FileHelper.deleteRecord(tasks.get(2).getId())
+        ));
+        
+        List<Task> expected = List.of(tasks.get(0), tasks.get(1), added);
+        assertSameTasks(expected, FileHelper.loadTasks());
+        assertTrue(FileHelper.fileExists());
+    }
+    
+    @Test
+    void journaledMovesRestoreDisplayOrder() throws IOException {
+        List<Task> tasks = tasks(3);
+        FileHelper.saveTasks(tasks);
+        
+        // Move the last task to the top
+        Task moved = tasks.get(2);
+        moved.setDisplayOrder(tasks.get(0).getDisplayOrder() - 512);
+        FileHelper.appendRecords(List.of(FileHelper.updateRecord(moved)));
+        
+        List<Task> loaded = FileHelper.loadTasks();
+        assertEquals(List.of(moved.getId(), tasks.get(0).getId(), tasks.get(1).getId()),
+                     List.of(loaded.get(0).getId(), loaded.get(1).getId(), loaded.get(2).getId()));
+    }
+    
+    @Test
+    void journaledAddsRestoreDisplayOrder() throws IOException {
+        List<Task> tasks = tasks(2);
+        FileHelper.saveTasks(tasks);
+        
+        // Added, then dragged to the top before the autosave ran
+        Task added = new Task("id-new", "Added at the top", CREATED, false, null, Task.TAG_NONE, null, 512);
+        FileHelper.appendRecords(List.of(FileHelper.addRecord(added)));
+        
+        assertSameTasks(List.of(added, tasks.get(0), tasks.get(1)), FileHelper.loadTasks());
+    }
+    
+    @Test
+    void journalSkipsTornRecords() throws IOException {
+        List<Task> tasks = tasks(2);
+        FileHelper.saveTasks(tasks);
+        FileHelper.appendRecords(List.of(FileHelper.deleteRecord(tasks.get(0).getId())));
+        Files.writeString(folder.resolve("tasks.journal"), "U|id-1|Torn", java.nio.file.StandardOpenOption.APPEND);
+        
+        assertSameTasks(List.of(tasks.get(1)), FileHelper.loadTasks());
+    }
+    
+    @Test
+    void longJournalAsksForASnapshot() throws IOException {
+        List<Task> tasks = tasks(10);
+        FileHelper.saveTasks(tasks);
+        
+        List<String> records = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Task task = tasks.get(i % tasks.size());
+            task.setDescription("Revision " + i);
+            records.add(FileHelper.updateRecord(task));
+        }
+        FileHelper.appendRecords(records.subList(0, 999));
+        assertFalse(FileHelper.isCompactionDue());
+        FileHelper.appendRecords(records.subList(999, 1000));
+        assertTrue(FileHelper.isCompactionDue());
+        assertSameTasks(tasks, FileHelper.loadTasks());
+        
+        // Saving the tasks in memory folds the journal away
+        FileHelper.saveTasks(tasks);
+        assertFalse(Files.exists(folder.resolve("tasks.journal")));
+        assertFalse(FileHelper.isCompactionDue());
+        assertSameTasks(tasks, FileHelper.loadTasks());
+    }
+    
+    @Test
+    void savesRotateBackups() throws IOException {
+        List<Task> tasks = tasks(1);
+        for (int i = 0; i < 4; i++) {
+            tasks.get(0).setDescription("Save " + i);
+            FileHelper.saveTasks(tasks);
+        }
+        
+        File backup = folder.resolve("tasks.txt.1").toFile();
+        assertTrue(backup.exists());
+        assertTrue(Files.readString(backup.toPath()).contains("Save 2"));
+        assertTrue(folder.resolve("tasks.txt.2").toFile().exists());
+        assertFalse(folder.resolve("tasks.txt.3").toFile().exists());
+        assertFalse(folder.resolve("tasks.txt.tmp").toFile().exists());
+        assertTrue(Files.readString(folder.resolve("tasks.txt")).contains("Save 3"));
+        assertTrue(Files.readString(folder.resolve("tasks.txt.2")).contains("Save 1"));
+    }
+    
+    @Test
+    void failedSavesLeaveNoTempFile() throws IOException {
+        FileHelper.saveTasks(tasks(1));
+        FileHelper.saveTasks(tasks(2));
+        // A directory in the way makes rotating the backups fail, after the temp file was written
+        Files.createDirectories(folder.resolve("tasks.txt.2").resolve("blocker"));
+        
+        assertThrows(IOException.class, () -> FileHelper.saveTasks(tasks(3)));
+        assertFalse(Files.exists(folder.resolve("tasks.txt.tmp")));
+        assertSameTasks(tasks(2), FileHelper.loadTasks());
+    }
+    
+    @Test
+    void batchedJournalAppendsAreForcedLater() throws IOException {
+        FileHelper.setSyncPolicy(FileHelper.SyncPolicy.BATCHED);
+        List<Task> tasks = tasks(2);
+        FileHelper.saveTasks(tasks);
+        
+        // Within one sync interval, at most the first append is forced
+        FileHelper.appendRecords(List.of(FileHelper.updateRecord(tasks.get(0))));
+        FileHelper.appendRecords(List.of(FileHelper.updateRecord(tasks.get(1))));
+        assertTrue(FileHelper.isJournalSyncPending());
+        
+        FileHelper.syncJournal();
+        assertFalse(FileHelper.isJournalSyncPending());
+        assertSameTasks(tasks, FileHelper.loadTasks());
+    }
+    
+    @Test
+    void missingFilesLoadAsEmpty() throws IOException {
+        assertTrue(FileHelper.loadTasks().isEmpty());
+        assertFalse(FileHelper.fileExists());
+    }
+    
+    static List<Task> tasks(int count) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tasks.add(new Task("id-" + i, "Task " + i, CREATED.plusMinutes(i), false, null,
+                               Task.ALL_TAGS[i % Task.ALL_TAGS.length], i % 2 == 0 ? CREATED.plusDays(i) : null,
+                               (i + 1) * 1024));
+        }
+        return tasks;
+    }
+    
+    static void assertSameTasks(List<Task> expected, List<Task> actual) {
+        assertEquals(expected.size(), actual.size(), "task count");
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toFileString(), actual.get(i).toFileString(), "task " + i);
+        }
+    }
+}
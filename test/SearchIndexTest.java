@@ -0,0 +1,135 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * SearchIndexTest.java
+ * Checks SearchIndex against a plain substring scan.
+ */
+class SearchIndexTest {
+    private static final String[] WORDS = { "Lab", "report", "buy", "milk", "call", "mom", "pay", "bill", "rent",
+                                            "repo", "ab", "aba", "ABA", "x" };
+    
+    @Test
+    void findsSubstringsCaseInsensitively() {
+        SearchIndex index = new SearchIndex();
+        Task lab = new Task("Finish Lab Report");
+        Task milk = new Task("buy milk");
+        Task empty = new Task("");
+        index.add(lab);
+        index.add(milk);
+        index.add(empty);
+        
+        assertEquals(Set.of(lab), index.search("lab rep"));
+        assertEquals(Set.of(lab, milk), index.search("i"));
+        assertEquals(Set.of(), index.search("zebra"));
+        assertNull(index.search(""));
+    }
+    
+    @Test
+    void resultFollowsEditsUntilTheNextSearch() {
+        SearchIndex index = new SearchIndex();
+        Task first = new Task("pay rent");
+        Task second = new Task("call mom");
+        index.add(first);
+        index.add(second);
+        
+        Set<Task> matches = index.search("rent");
+        assertEquals(Set.of(first), matches);
+        
+        second.setDescription("rent a car");
+        index.update(second);
+        index.remove(first);
+        Task third = new Task("Rent review");
+        index.add(third);
+        
+        assertEquals(Set.of(second, third), matches);
+        assertTrue(matches.contains(third));
+        assertFalse(matches.contains(first));
+        assertEquals(2, matches.size());
+    }
+    
+    @Test
+    void refinementsNarrowThePreviousResult() {
+        SearchIndex index = new SearchIndex();
+        Task report = new Task("report");
+        Task repo = new Task("repo");
+        index.add(report);
+        index.add(repo);
+        
+        assertEquals(Set.of(report, repo), index.search("rep"));
+        assertEquals(Set.of(report), index.search("repor"));
+        // Not a refinement of "repor", so searched afresh
+        assertEquals(Set.of(report, repo), index.search("repo"));
+    }
+    
+    @Test
+    void removedSlotsAreReused() {
+        SearchIndex index = new SearchIndex();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            tasks.add(new Task("task " + i));
+            index.add(tasks.get(i));
+        }
+        for (int i = 0; i < 200; i += 2) {
+            index.remove(tasks.get(i));
+        }
+        Task late = new Task("task late");
+        index.add(late);
+        
+        assertTrue(late.searchSlot < 200);
+        assertEquals(101, index.search("task").size());
+        assertFalse(index.search("task 10").contains(tasks.get(10)));
+        assertTrue(index.search("task 11").contains(tasks.get(11)));
+    }
+    
+    @Test
+    void randomEditsMatchAScan() {
+        Random random = new Random(42);
+        SearchIndex index = new SearchIndex();
+        List<Task> tasks = new ArrayList<>();
+        for (int round = 0; round < 3000; round++) {
+            int action = random.nextInt(10);
+            if (action < 4 || tasks.isEmpty()) {
+                Task task = new Task(randomText(random));
+                tasks.add(task);
+                index.add(task);
+            } else if (action < 6) {
+                index.remove(tasks.remove(random.nextInt(tasks.size())));
+            } else if (action < 8) {
+                Task task = tasks.get(random.nextInt(tasks.size()));
+                task.setDescription(randomText(random));
+                index.update(task);
+            } else {
+                String query = random.nextBoolean() ? WORDS[random.nextInt(WORDS.length)] : randomText(random);
+                query = query.substring(0, Math.min(query.length(), 1 + random.nextInt(6)));
+                Set<Task> found = index.search(query);
+                assertEquals(scan(tasks, query), query.isEmpty() ? new HashSet<>(tasks) : new HashSet<>(found), query);
+            }
+        }
+    }
+    
+    private static String randomText(Random random) {
+        StringBuilder text = new StringBuilder();
+        int words = random.nextInt(4);
+        for (int i = 0; i < words; i++) {
+            text.append(i > 0 ? " " : "").append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+    
+    private static Set<Task> scan(List<Task> tasks, String query) {
+        Set<Task> found = new HashSet<>();
+        for (Task task : tasks) {
+            if (task.getDescription().toLowerCase().contains(query.toLowerCase())) {
+                found.add(task);
+            }
+        }
+        return found;
+    }
+}
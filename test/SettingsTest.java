@@ -0,0 +1,87 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * SettingsTest.java
+ * Checks the write-behind of settings.properties, in a temporary folder.
+ */
+class SettingsTest {
+    @TempDir
+    Path folder;
+    
+    @BeforeEach
+    void useTemporaryFolder() {
+        Settings.setDirectory(folder.toFile());
+        Settings.load();
+    }
+    
+    @AfterEach
+    void restoreDefaults() {
+        Settings.flush();
+        Settings.setDirectory(null);
+    }
+    
+    @Test
+    void changesAreWrittenBehindTogether() throws Exception {
+        Settings.setTheme(Theme.SUNSET);
+        Settings.setNotificationsEnabled(false);
+        
+        // Setters only update memory
+        assertEquals(Theme.SUNSET, Settings.getTheme());
+        assertFalse(Files.exists(settingsFile()));
+        
+        long deadline = System.currentTimeMillis() + Settings.FLUSH_DELAY_MS * 10;
+        while (!Files.exists(settingsFile())) {
+            assertTrue(System.currentTimeMillis() < deadline, "settings were never written");
+            Thread.sleep(20);
+        }
+        Properties saved = read();
+        assertEquals(Theme.SUNSET.getName(), saved.getProperty("theme"));
+        assertEquals("false", saved.getProperty("notifications_enabled"));
+        assertFalse(Files.exists(folder.resolve("settings.properties.tmp")));
+    }
+    
+    @Test
+    void unchangedValuesWriteNothing() throws Exception {
+        Settings.setTheme(Settings.getTheme());
+        Settings.setNotificationsEnabled(Settings.areNotificationsEnabled());
+        
+        Thread.sleep(Settings.FLUSH_DELAY_MS * 2);
+        Settings.flush();
+        assertFalse(Files.exists(settingsFile()));
+    }
+    
+    @Test
+    void flushWritesNowAndLoadReadsItBack() throws Exception {
+        Settings.setTheme(Theme.FOREST);
+        Settings.flush();
+        assertEquals(Theme.FOREST.getName(), read().getProperty("theme"));
+        
+        Files.writeString(settingsFile(), Files.readString(settingsFile())
+            + "sync_policy=sometimes\nbackup_count=-3\n");
+        Settings.load();
+        
+        assertEquals(Theme.FOREST, Settings.getTheme());
+        assertEquals(FileHelper.SyncPolicy.BATCHED, Settings.getSyncPolicy());
+        assertEquals(0, Settings.getBackupCount());
+    }
+    
+    private Path settingsFile() {
+        return folder.resolve("settings.properties");
+    }
+    
+    private Properties read() throws IOException {
+        Properties properties = new Properties();
+        properties.load(new StringReader(Files.readString(settingsFile())));
+        return properties;
+    }
+}
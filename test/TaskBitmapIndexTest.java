@@ -0,0 +1,118 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * TaskBitmapIndexTest.java
+ * Checks TaskBitmapIndex queries against a plain scan of the tasks.
+ */
+class TaskBitmapIndexTest {
+    
+    @Test
+    void combinesTagCompletionAndDue() {
+        TaskBitmapIndex index = new TaskBitmapIndex();
+        LocalDateTime now = LocalDateTime.now();
+        Task overdueSchool = add(index, new Task("1", "Essay", now, false, null, Task.TAG_SCHOOL, now.minusDays(1), 1));
+        Task soonSchool = add(index, new Task("2", "Quiz", now, false, null, Task.TAG_SCHOOL, now.plusHours(2), 2));
+        Task doneSchool = add(index, new Task("3", "Lab", now, true, now, Task.TAG_SCHOOL, now.minusDays(2), 3));
+        Task overdueWork = add(index, new Task("4", "Report", now, false, null, Task.TAG_WORK, now.minusHours(1), 4));
+        Task undated = add(index, new Task("5", "Someday", now, false, null, Task.TAG_WORK, null, 5));
+        
+        assertEquals(Set.of(overdueSchool), find(index, Tag.SCHOOL, false, TaskBitmapIndex.Due.OVERDUE));
+        assertEquals(Set.of(overdueSchool, overdueWork), find(index, null, false, TaskBitmapIndex.Due.OVERDUE));
+        assertEquals(Set.of(soonSchool), find(index, null, null, TaskBitmapIndex.Due.DUE_SOON));
+        assertEquals(Set.of(doneSchool), find(index, Tag.SCHOOL, true, null));
+        assertEquals(Set.of(undated), find(index, null, null, TaskBitmapIndex.Due.NONE));
+        assertEquals(Set.of(), find(index, Tag.HEALTH, null, null));
+    }
+    
+    @Test
+    void editsMoveTheBits() {
+        TaskBitmapIndex index = new TaskBitmapIndex();
+        Task task = add(index, new Task("Essay"));
+        
+        task.setTag(Task.TAG_SCHOOL);
+        task.setDueDate(LocalDateTime.now().minusDays(1));
+        assertEquals(Set.of(task), find(index, Tag.SCHOOL, false, TaskBitmapIndex.Due.OVERDUE));
+        
+        task.setCompleted(true);
+        task.setTag(Task.TAG_WORK);
+        assertEquals(Set.of(), find(index, Tag.SCHOOL, null, null));
+        assertEquals(Set.of(task), find(index, Tag.WORK, true, TaskBitmapIndex.Due.OVERDUE));
+        
+        index.taskRemoved(task);
+        assertEquals(Set.of(), find(index, null, null, null));
+        assertEquals(-1, task.bitmapSlot);
+    }
+    
+    @Test
+    void randomEditsMatchAScan() {
+        Random random = new Random(7);
+        TaskBitmapIndex index = new TaskBitmapIndex();
+        LocalDateTime now = LocalDateTime.now();
+        List<Task> tasks = new ArrayList<>();
+        for (int round = 0; round < 3000; round++) {
+            int action = random.nextInt(10);
+            if (action < 4 || tasks.isEmpty()) {
+                tasks.add(add(index, new Task("Task " + round)));
+            } else if (action < 5) {
+                index.taskRemoved(tasks.remove(random.nextInt(tasks.size())));
+            } else if (action < 8) {
+                Task task = tasks.get(random.nextInt(tasks.size()));
+                switch (random.nextInt(3)) {
+                    case 0:
+                        task.setCompleted(!task.isCompleted());
+                        break;
+                    case 1:
+                        task.setTag(Task.ALL_TAGS[random.nextInt(Task.ALL_TAGS.length)]);
+                        break;
+                    default:
+                        task.setDueDate(random.nextBoolean() ? null : now.plusHours(random.nextInt(96) - 48));
+                        break;
+                }
+            } else {
+                Tag tag = random.nextBoolean() ? null : Tag.of(Task.ALL_TAGS[random.nextInt(Task.ALL_TAGS.length)]);
+                Boolean completed = random.nextBoolean() ? null : random.nextBoolean();
+                assertEquals(scan(tasks, tag, completed), find(index, tag, completed, null));
+                assertEquals(overdue(tasks), find(index, null, false, TaskBitmapIndex.Due.OVERDUE));
+            }
+        }
+    }
+    
+    private static Task add(TaskBitmapIndex index, Task task) {
+        index.taskAdded(task);
+        task.setListener(index);
+        return task;
+    }
+    
+    private static Set<Task> find(TaskBitmapIndex index, Tag tag, Boolean completed, TaskBitmapIndex.Due due) {
+        return new HashSet<>(index.find(tag, completed, due));
+    }
+    
+    private static Set<Task> scan(List<Task> tasks, Tag tag, Boolean completed) {
+        Set<Task> found = new HashSet<>();
+        for (Task task : tasks) {
+            if ((tag == null || task.getTagId() == tag.getId())
+                    && (completed == null || task.isCompleted() == completed)) {
+                found.add(task);
+            }
+        }
+        return found;
+    }
+    
+    private static Set<Task> overdue(List<Task> tasks) {
+        Set<Task> found = new HashSet<>();
+        for (Task task : tasks) {
+            if (task.isOverdue()) {
+                found.add(task);
+            }
+        }
+        return found;
+    }
+}
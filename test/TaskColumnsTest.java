@@ -0,0 +1,45 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * TaskColumnsTest.java
+ * Encodes tasks into columns and reads every field back.
+ */
+class TaskColumnsTest {
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 3, 1, 9, 30, 0);
+    
+    @Test
+    void rowsReadBackEveryField() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            String id = i % 3 == 0 ? new UUID(i, i * 31L).toString() : "id-" + i;
+            String tag = i % 5 == 0 ? "Custom " + i : Task.ALL_TAGS[i % Task.ALL_TAGS.length];
+            boolean completed = i % 7 == 0;
+            tasks.add(new Task(id, "Task " + i + (i % 4 == 0 ? " ünïcödé ✓" : ""), CREATED.plusMinutes(i), completed,
+                               completed ? CREATED.plusDays(1) : null, tag, i % 2 == 0 ? CREATED.plusDays(i) : null,
+                               i * 1024 - 5000, CREATED.plusHours(i)));
+        }
+        tasks.add(new Task("empty", "", CREATED, false, null, Task.TAG_NONE, null, 0, CREATED));
+        
+        TaskColumns columns = TaskColumns.of(tasks);
+        
+        assertEquals(tasks.size(), columns.size());
+        for (int row = 0; row < tasks.size(); row++) {
+            Task task = tasks.get(row);
+            assertEquals(task.toFileString(), columns.getTask(row).toFileString(), "row " + row);
+            assertEquals(task.isCompleted(), columns.isCompleted(row), "row " + row);
+            assertEquals(task.getModifiedAt(), columns.getModifiedAt(row), "row " + row);
+        }
+        assertNotSame(columns.getTask(0), columns.getTask(0));
+    }
+    
+    @Test
+    void emptyListHasNoRows() {
+        assertEquals(0, TaskColumns.of(List.of()).size());
+    }
+}
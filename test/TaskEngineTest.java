@@ -0,0 +1,180 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * TaskEngineTest.java
+ * Drives a TaskEngine whose owner thread is the test thread: callbacks
+ * queue up and run when the test says so. Files go to a temporary folder.
+ */
+class TaskEngineTest {
+    @TempDir
+    Path folder;
+    
+    private final BlockingQueue<Runnable> ownerQueue = new LinkedBlockingQueue<>();
+    private TaskEngine engine;
+    
+    @BeforeEach
+    void startEngine() {
+        FileHelper.setDataDirectory(folder.toFile());
+        FileHelper.setSyncPolicy(FileHelper.SyncPolicy.NONE);
+        engine = new TaskEngine(ownerQueue::add, (overdue, dueSoon) -> { });
+    }
+    
+    @AfterEach
+    void stopEngine() {
+        engine.shutdown(5000);
+        FileHelper.setDataDirectory(null);
+        FileHelper.setSyncPolicy(FileHelper.SyncPolicy.BATCHED);
+    }
+    
+    @Test
+    void reloadKeepsEditsMadeWhileLoading() throws Exception {
+        FileHelper.saveTasks(FileHelperTest.tasks(3));
+        load();
+        Task kept = engine.getTask("id-0");
+        Task deleted = engine.getTask("id-1");
+        
+        // Pending before the reload: journaled first, so the reload reads it
+        engine.updateTask(kept, "Edited before", Task.TAG_WORK, null);
+        
+        boolean[] loaded = new boolean[1];
+        engine.loadTasks(fraction -> { }, tasks -> loaded[0] = true, e -> fail(e));
+        // The export queues behind the load on the single worker, so once its
+        // file exists the files were read; edit before the load callback runs
+        File barrier = folder.resolve("barrier.csv").toFile();
+        engine.exportTasks(TaskExporter.Format.CSV, barrier, false, count -> { }, e -> fail(e));
+        waitFor(barrier::exists);
+        engine.deleteTask(deleted);
+        Task added = engine.addTask("Added while loading", Task.TAG_SCHOOL, null);
+        runUntil(() -> loaded[0]);
+        
+        assertEquals(List.of("Edited before", "Task 2", "Added while loading"), descriptions(engine.getTasks()));
+        assertSame(added, engine.getTask(added.getId()));
+        assertNull(engine.getTask("id-1"));
+        
+        engine.shutdown(5000);
+        assertEquals(descriptions(engine.getTasks()), descriptions(FileHelper.loadTasks()));
+    }
+    
+    @Test
+    void reloadWithoutEditsReplacesTheList() throws Exception {
+        FileHelper.saveTasks(FileHelperTest.tasks(2));
+        load();
+        engine.addTask("Saved by autosave", Task.TAG_NONE, null);
+        
+        load();
+        
+        assertEquals(List.of("Task 0", "Task 1", "Saved by autosave"), descriptions(engine.getTasks()));
+        assertEquals(3, engine.getStatistics().getTotalCount());
+    }
+    
+    @Test
+    void filtersFollowEdits() {
+        Task lab = engine.addTask("Chemistry lab", Task.TAG_SCHOOL, null);
+        Task essay = engine.addTask("History essay", Task.TAG_SCHOOL, null);
+        engine.addTask("Lab safety training", Task.TAG_WORK, null);
+        
+        engine.setFilter(Task.TAG_SCHOOL, "lab");
+        assertEquals(List.of(lab), engine.getVisibleTasks());
+        
+        engine.updateTask(essay, "Essay on lab notebooks", Task.TAG_SCHOOL, null);
+        assertEquals(List.of(lab, essay), engine.getVisibleTasks());
+        engine.updateTask(lab, "Chemistry lab", Task.TAG_WORK, null);
+        assertEquals(List.of(essay), engine.getVisibleTasks());
+        
+        engine.setFilter(null, "");
+        assertEquals(engine.getTasks(), engine.getVisibleTasks());
+        engine.setFilter("Never used", "");
+        assertTrue(engine.getVisibleTasks().isEmpty());
+    }
+    
+    @Test
+    void bulkEditsKeepCountsAndFilesInStep() throws Exception {
+        for (int i = 0; i < 6; i++) {
+            engine.addTask("Task " + i, i % 2 == 0 ? Task.TAG_SCHOOL : Task.TAG_HEALTH, null);
+        }
+        engine.toggleCompleted(engine.getTasks().get(0));
+        engine.toggleCompleted(engine.getTasks().get(1));
+        
+        assertEquals(2, engine.clearCompleted());
+        assertEquals(2, engine.retagMatching(task -> task.getTag().equals(Task.TAG_HEALTH), Task.TAG_WORK));
+        engine.setFilter(Task.TAG_WORK, "");
+        assertEquals(2, engine.completeVisible());
+        assertEquals(0, engine.completeVisible());
+        
+        TaskStatistics statistics = engine.getStatistics();
+        assertEquals(4, statistics.getTotalCount());
+        assertEquals(2, statistics.getCompletedCount());
+        assertEquals(2, statistics.getTagCount(Task.TAG_WORK));
+        assertEquals(2, engine.findTasks(Task.TAG_SCHOOL, false, null).size());
+        
+        engine.shutdown(5000);
+        FileHelperTest.assertSameTasks(engine.getTasks(), FileHelper.loadTasks());
+    }
+    
+    @Test
+    void movesAndOverdueTasksSurviveAReload() throws Exception {
+        Task first = engine.addTask("First", Task.TAG_NONE, null);
+        engine.addTask("Second", Task.TAG_NONE, null);
+        Task late = engine.addTask("Late", Task.TAG_NONE, LocalDateTime.now().minusHours(1));
+        
+        assertTrue(engine.moveTask(late, first));
+        assertEquals(List.of("Late", "First", "Second"), descriptions(engine.getTasks()));
+        assertEquals(List.of(late), engine.getOverdueTasks());
+        
+        engine.shutdown(5000);
+        engine = new TaskEngine(ownerQueue::add, (overdue, dueSoon) -> { });
+        load();
+        assertEquals(List.of("Late", "First", "Second"), descriptions(engine.getTasks()));
+        assertEquals(List.of("Late"), descriptions(engine.getOverdueTasks()));
+    }
+    
+    private void load() throws InterruptedException {
+        boolean[] loaded = new boolean[1];
+        engine.loadTasks(fraction -> { }, tasks -> loaded[0] = true, e -> fail(e));
+        runUntil(() -> loaded[0]);
+    }
+    
+    /**
+     * Runs owner callbacks until the condition holds
+     */
+    private void runUntil(BooleanSupplier condition) throws InterruptedException {
+        while (!condition.getAsBoolean()) {
+            Runnable callback = ownerQueue.poll(5, TimeUnit.SECONDS);
+            assertNotNull(callback, "timed out waiting for a callback");
+            callback.run();
+        }
+    }
+    
+    /**
+     * Waits, without running callbacks, until the condition holds
+     */
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(5);
+        }
+    }
+    
+    private static List<String> descriptions(List<Task> tasks) {
+        List<String> descriptions = new ArrayList<>();
+        for (Task task : tasks) {
+            descriptions.add(task.getDescription());
+        }
+        return descriptions;
+    }
+}
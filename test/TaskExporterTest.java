@@ -0,0 +1,90 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * TaskExporterTest.java
+ * Checks the iCalendar output, format detection and records larger than
+ * the export buffer. CSV and JSON Lines round trips are in TaskImporterTest.
+ */
+class TaskExporterTest {
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 3, 1, 9, 30, 0);
+    
+    @TempDir
+    Path folder;
+    
+    @Test
+    void icsHasOneVTodoPerTask() throws Exception {
+        List<Task> tasks = List.of(
+            new Task("id-1", "Read; then, summarize \\ notes", CREATED, false, null, "Reading Group",
+                     CREATED.plusDays(2), 1),
+            new Task("id-2", "Done", CREATED, true, CREATED.plusHours(1), Task.TAG_NONE, null, 2));
+        
+        String ics = export(tasks, TaskExporter.Format.ICS);
+        
+        assertTrue(ics.startsWith("BEGIN:VCALENDAR\r\nVERSION:2.0\r\n"));
+        assertTrue(ics.endsWith("END:VCALENDAR\r\n"));
+        assertEquals(2, ics.split("BEGIN:VTODO", -1).length - 1);
+        assertTrue(ics.contains("SUMMARY:Read\\; then\\, summarize \\\\ notes\r\n"));
+        assertTrue(ics.contains("DUE:20240303T093000\r\n"));
+        assertTrue(ics.contains("CATEGORIES:Reading Group\r\n"));
+        assertTrue(ics.contains("STATUS:NEEDS-ACTION\r\n"));
+        assertTrue(ics.contains("STATUS:COMPLETED\r\n"));
+    }
+    
+    @Test
+    void icsFoldsLongLinesAt75Octets() throws Exception {
+        String description = "ü".repeat(100) + " end";
+        String ics = export(List.of(new Task("id", description, CREATED, false, null, Task.TAG_NONE, null, 1)),
+                            TaskExporter.Format.ICS);
+        
+        for (String line : ics.split("\r\n")) {
+            assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= 75, line);
+        }
+        // Unfolding gives the summary back
+        assertTrue(ics.replace("\r\n ", "").contains("SUMMARY:" + description + "\r\n"));
+    }
+    
+    @Test
+    void picksTheFormatFromTheFileName() {
+        assertEquals(TaskExporter.Format.CSV, TaskExporter.Format.forFileName("Tasks.CSV"));
+        assertEquals(TaskExporter.Format.JSONL, TaskExporter.Format.forFileName("tasks.jsonl.gz"));
+        assertEquals(TaskExporter.Format.ICS, TaskExporter.Format.forFileName("calendar.ics"));
+        assertNull(TaskExporter.Format.forFileName("tasks.txt"));
+    }
+    
+    @Test
+    void recordsLargerThanTheBufferAreWrittenWhole() throws Exception {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            tasks.add(new Task("id-" + i, i + " " + "x".repeat(100_000), CREATED, false, null, Task.TAG_WORK, null, i));
+        }
+        File file = folder.resolve("big.jsonl.gz").toFile();
+        
+        assertEquals(3, TaskExporter.exportToFile(tasks, TaskExporter.Format.JSONL, file));
+        
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        assertEquals(0x1f, bytes[0] & 0xff);
+        assertEquals(0x8b, bytes[1] & 0xff);
+        List<Task> imported = new ArrayList<>();
+        TaskImporter.importFile(file, TaskImporter.Format.JSONL, (batch, progress) -> imported.addAll(batch),
+                                new TaskImporter.Result());
+        FileHelperTest.assertSameTasks(tasks, imported);
+    }
+    
+    private static String export(List<Task> tasks, TaskExporter.Format format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(tasks.size(), TaskExporter.export(tasks, format, Channels.newChannel(out), false));
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,97 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+
+/**
+ * TaskFileFormatTest.java
+ * Round trips through the pipe-delimited line format (Task.toFileString /
+ * Task.fromFileString), including the older layouts it still reads.
+ */
+class TaskFileFormatTest {
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 3, 1, 9, 30, 0);
+    private static final LocalDateTime COMPLETED = LocalDateTime.of(2024, 3, 2, 10, 0, 5);
+    private static final LocalDateTime DUE = LocalDateTime.of(2024, 3, 5, 23, 59, 0);
+    private static final LocalDateTime MODIFIED = LocalDateTime.of(2024, 3, 3, 8, 15, 45);
+    
+    @Test
+    void roundTripKeepsEveryField() {
+        Task task = new Task("0b7c5c8e-59a4-4a3e-8f3e-2a9f3b7c1d20", "Finish lab report", CREATED, true,
+                             COMPLETED, Task.TAG_SCHOOL, DUE, 2048, MODIFIED);
+        
+        Task parsed = Task.fromFileString(task.toFileString());
+        
+        assertNotNull(parsed);
+        assertEquals(task.getId(), parsed.getId());
+        assertEquals("Finish lab report", parsed.getDescription());
+        assertEquals(CREATED, parsed.getCreatedAt());
+        assertTrue(parsed.isCompleted());
+        assertEquals(COMPLETED, parsed.getCompletedAt());
+        assertEquals(Task.TAG_SCHOOL, parsed.getTag());
+        assertEquals(DUE, parsed.getDueDate());
+        assertEquals(2048, parsed.getDisplayOrder());
+        assertEquals(MODIFIED, parsed.getModifiedAt());
+        assertEquals(task.toFileString(), parsed.toFileString());
+    }
+    
+    @Test
+    void roundTripKeepsMissingDatesAndCustomTags() {
+        Task task = new Task("plain-id", "Buy milk", CREATED, false, null, "Groceries", null, 7, CREATED);
+        
+        Task parsed = Task.fromFileString(task.toFileString());
+        
+        assertNotNull(parsed);
+        assertNull(parsed.getCompletedAt());
+        assertNull(parsed.getDueDate());
+        assertEquals("Groceries", parsed.getTag());
+        assertEquals(task.toFileString(), parsed.toFileString());
+    }
+    
+    @Test
+    void readsLinesWithoutModificationTime() {
+        Task parsed = Task.fromFileString("id1|Old task|2024-03-01 09:30:00|true|2024-03-02 10:00:05|Work|null|5");
+        
+        assertNotNull(parsed);
+        assertEquals("Old task", parsed.getDescription());
+        assertEquals(Task.TAG_WORK, parsed.getTag());
+        assertEquals(5, parsed.getDisplayOrder());
+        // Derived as the later of creation and completion
+        assertEquals(COMPLETED, parsed.getModifiedAt());
+    }
+    
+    @Test
+    void readsOlderLayouts() {
+        Task withoutTags = Task.fromFileString("id2|No tags yet|2024-03-01 09:30:00|false|null");
+        assertNotNull(withoutTags);
+        assertEquals("id2", withoutTags.getId());
+        assertEquals(Task.TAG_NONE, withoutTags.getTag());
+        assertNull(withoutTags.getDueDate());
+        
+        Task timestamped = Task.fromFileString("Just text|2024-03-01 09:30:00");
+        assertNotNull(timestamped);
+        assertEquals("Just text", timestamped.getDescription());
+        assertEquals(CREATED, timestamped.getCreatedAt());
+        
+        Task bare = Task.fromFileString("Only a description");
+        assertNotNull(bare);
+        assertEquals("Only a description", bare.getDescription());
+    }
+    
+    @Test
+    void rejectsMalformedLines() {
+        assertNull(Task.fromFileString("id|desc|not a date|false|null|None|null|0"));
+        assertNull(Task.fromFileString("id|desc|2024-03-01 09:30:00|false|null|None|null|notanumber"));
+    }
+    
+    @Test
+    void editsRefreshTheModificationTimeButMovesDoNot() {
+        Task task = new Task("id3", "Draft", CREATED, false, null, Task.TAG_NONE, null, 1024, CREATED);
+        
+        task.setDisplayOrder(2048);
+        assertEquals(CREATED, task.getModifiedAt());
+        
+        task.setDescription("Final");
+        assertTrue(task.getModifiedAt().isAfter(CREATED));
+        assertEquals(0, task.getModifiedAt().getNano());
+    }
+}
@@ -0,0 +1,82 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Random;
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.Test;
+
+/**
+ * TaskIdIndexTest.java
+ * Keeps a TaskIdIndex in step with a TaskList the way TaskEngine does,
+ * and checks its lookups against the list itself.
+ */
+class TaskIdIndexTest {
+    
+    @Test
+    void findsTasksAndPositions() {
+        TaskList list = new TaskList();
+        TaskIdIndex index = track(list);
+        Task first = new Task("first");
+        Task second = new Task("second");
+        list.setAll(List.of(first, second));
+        
+        assertSame(second, index.get(second.getId()));
+        assertEquals(1, index.indexOf(second));
+        
+        list.add(0, new Task("new head"));
+        assertEquals(2, index.indexOf(second.getId()));
+        
+        list.remove(first);
+        assertNull(index.get(first.getId()));
+        assertEquals(-1, index.indexOf(first));
+        assertEquals(1, index.indexOf(second));
+        assertEquals(2, index.size());
+    }
+    
+    @Test
+    void aCopyWithTheSameIdIsNotInTheList() {
+        TaskList list = new TaskList();
+        TaskIdIndex index = track(list);
+        Task task = new Task("original");
+        list.add(task);
+        
+        assertEquals(-1, index.indexOf(task.copy()));
+        assertEquals(0, index.indexOf(task));
+    }
+    
+    @Test
+    void randomEditsMatchTheList() {
+        Random random = new Random(3);
+        TaskList list = new TaskList();
+        TaskIdIndex index = track(list);
+        for (int round = 0; round < 5000; round++) {
+            int action = random.nextInt(10);
+            if (action < 4 || list.isEmpty()) {
+                list.add(random.nextInt(list.size() + 1), new Task("Task " + round));
+            } else if (action < 6) {
+                list.remove(random.nextInt(list.size()));
+            } else if (action < 8) {
+                // A drag: remove and put back elsewhere
+                Task moved = list.remove(random.nextInt(list.size()));
+                list.add(random.nextInt(list.size() + 1), moved);
+            } else {
+                Task task = list.get(random.nextInt(list.size()));
+                assertEquals(list.indexOf(task), index.indexOf(task.getId()));
+                assertSame(task, index.get(task.getId()));
+            }
+        }
+        assertEquals(list.size(), index.size());
+    }
+    
+    private static TaskIdIndex track(TaskList list) {
+        TaskIdIndex index = new TaskIdIndex(list);
+        list.addListener((ListChangeListener<Task>) change -> {
+            while (change.next()) {
+                index.invalidateFrom(change.getFrom());
+                change.getRemoved().forEach(index::removed);
+                change.getAddedSubList().forEach(index::added);
+            }
+        });
+        return index;
+    }
+}
@@ -0,0 +1,167 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * TaskImporterTest.java
+ * Exports tasks with TaskExporter and reads them back with TaskImporter.
+ */
+class TaskImporterTest {
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 3, 1, 9, 30, 0);
+    
+    @TempDir
+    Path folder;
+    
+    @Test
+    void csvRoundTrips() throws Exception {
+        assertRoundTrip(TaskExporter.Format.CSV, TaskImporter.Format.CSV, "tasks.csv");
+    }
+    
+    @Test
+    void gzippedCsvRoundTrips() throws Exception {
+        assertRoundTrip(TaskExporter.Format.CSV, TaskImporter.Format.CSV, "tasks.csv.gz");
+    }
+    
+    @Test
+    void jsonLinesRoundTrip() throws Exception {
+        assertRoundTrip(TaskExporter.Format.JSONL, TaskImporter.Format.JSONL, "tasks.jsonl");
+    }
+    
+    @Test
+    void pipeSnapshotsImport() throws Exception {
+        List<Task> tasks = sampleTasks();
+        StringBuilder text = new StringBuilder();
+        for (Task task : tasks) {
+            text.append(task.toFileString()).append('\n');
+        }
+        File file = folder.resolve("tasks.txt").toFile();
+        Files.writeString(file.toPath(), text);
+        
+        TaskImporter.Result result = new TaskImporter.Result();
+        List<Task> imported = importFile(file, TaskImporter.Format.PIPE, result);
+        
+        FileHelperTest.assertSameTasks(tasks, imported);
+        assertEquals(tasks.size(), result.getParsed());
+        assertEquals(0, result.getSkipped());
+    }
+    
+    @Test
+    void badRecordsAreSkippedAndCounted() throws Exception {
+        String csv = "id,description,created_at,display_order\n"
+                   + "a,Fine,2024-03-01T09:30:00,1\n"
+                   + "b,Bad date,yesterday,2\n"
+                   + "c,Bad order,2024-03-01T09:30:00,first\n"
+                   + "d,Also fine,,4\n";
+        
+        TaskImporter.Result result = new TaskImporter.Result();
+        List<Task> imported = importStream(csv, TaskImporter.Format.CSV, result);
+        
+        assertEquals(List.of("a", "d"), List.of(imported.get(0).getId(), imported.get(1).getId()));
+        assertEquals(2, result.getParsed());
+        assertEquals(2, result.getSkipped());
+    }
+    
+    @Test
+    void missingFieldsGetDefaults() throws Exception {
+        String json = "{\"description\": \"Only a description\"}\n";
+        
+        List<Task> imported = importStream(json, TaskImporter.Format.JSONL, new TaskImporter.Result());
+        
+        assertEquals(1, imported.size());
+        Task task = imported.get(0);
+        assertFalse(task.getId().isEmpty());
+        assertEquals(Task.TAG_NONE, task.getTag());
+        assertFalse(task.isCompleted());
+        assertNull(task.getDueDate());
+    }
+    
+    @Test
+    void importedTasksSurviveTheTaskFile() throws Exception {
+        String json = "{\"id\":\"a\",\"description\":\"pay a|b bill\"}\n"
+                    + "{\"id\":\"b\",\"description\":\"line1\\nline2\"}\n"
+                    + "{\"id\":\"c\",\"description\":\"ok\"}\n"
+                    + "{\"id\":\"d|e\",\"description\":\"bad id\"}\n"
+                    + "{\"id\":\"f\",\"description\":\"bad tag\",\"tag\":\"x\\ny\"}\n";
+        TaskImporter.Result result = new TaskImporter.Result();
+        List<Task> imported = importStream(json, TaskImporter.Format.JSONL, result);
+        
+        // Whatever isn't imported is counted, never lost on the way to disk
+        assertEquals(2, result.getParsed());
+        assertEquals(3, result.getSkipped());
+        assertEquals("line1 line2", imported.get(0).getDescription());
+        
+        FileHelper.setDataDirectory(folder.toFile());
+        try {
+            FileHelper.saveTasks(imported);
+            FileHelper.appendRecords(List.of(FileHelper.updateRecord(imported.get(1))));
+            FileHelperTest.assertSameTasks(imported, FileHelper.loadTasks());
+        } finally {
+            FileHelper.setDataDirectory(null);
+        }
+    }
+    
+    @Test
+    void largeInputsArriveInBatches() throws Exception {
+        StringBuilder json = new StringBuilder();
+        int count = TaskImporter.BATCH_SIZE * 2 + 5;
+        for (int i = 0; i < count; i++) {
+            json.append("{\"id\":\"id-").append(i).append("\",\"description\":\"Task ").append(i).append("\"}\n");
+        }
+        List<Integer> sizes = new ArrayList<>();
+        
+        TaskImporter.importStream(new ByteArrayInputStream(json.toString().getBytes(StandardCharsets.UTF_8)),
+                                  TaskImporter.Format.JSONL, (batch, progress) -> sizes.add(batch.size()),
+                                  new TaskImporter.Result());
+        
+        assertEquals(List.of(TaskImporter.BATCH_SIZE, TaskImporter.BATCH_SIZE, 5), sizes);
+    }
+    
+    private void assertRoundTrip(TaskExporter.Format exportFormat, TaskImporter.Format importFormat, String name)
+            throws Exception {
+        List<Task> tasks = sampleTasks();
+        File file = folder.resolve(name).toFile();
+        assertEquals(tasks.size(), TaskExporter.exportToFile(tasks, exportFormat, file));
+        
+        TaskImporter.Result result = new TaskImporter.Result();
+        List<Task> imported = importFile(file, importFormat, result);
+        
+        FileHelperTest.assertSameTasks(tasks, imported);
+        assertEquals(tasks.size(), result.getParsed());
+        assertEquals(0, result.getSkipped());
+    }
+    
+    private static List<Task> sampleTasks() {
+        return List.of(
+            new Task("0b7c5c8e-59a4-4a3e-8f3e-2a9f3b7c1d20", "Plain", CREATED, false,
+                     null, Task.TAG_WORK, null, 1024, CREATED),
+            new Task("id-2", "Commas, \"quotes\" and ünïcödé", CREATED, true,
+                     CREATED.plusDays(1), "Reading Group", CREATED.plusDays(3), 2048, CREATED.plusDays(1)),
+            new Task("id-3", "Back\\slash and {braces}", CREATED, false,
+                     null, Task.TAG_NONE, CREATED.plusHours(5), -7, CREATED.plusMinutes(2))
+        );
+    }
+    
+    private static List<Task> importFile(File file, TaskImporter.Format format, TaskImporter.Result result)
+            throws Exception {
+        List<Task> imported = new ArrayList<>();
+        TaskImporter.importFile(file, format, (batch, progress) -> imported.addAll(batch), result);
+        return imported;
+    }
+    
+    private static List<Task> importStream(String text, TaskImporter.Format format, TaskImporter.Result result)
+            throws Exception {
+        List<Task> imported = new ArrayList<>();
+        TaskImporter.importStream(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), format,
+                                  (batch, progress) -> imported.addAll(batch), result);
+        return imported;
+    }
+}
@@ -0,0 +1,75 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import javafx.collections.ListChangeListener;
+import javafx.collections.transformation.FilteredList;
+import org.junit.jupiter.api.Test;
+
+/**
+ * TaskListTest.java
+ * Checks the change events TaskList fires for bulk removals and in-place edits.
+ */
+class TaskListTest {
+    
+    @Test
+    void removeIfFiresOneChange() {
+        TaskList list = new TaskList();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            tasks.add(new Task("Task " + i));
+        }
+        list.setAll(tasks);
+        List<String> changes = new ArrayList<>();
+        list.addListener((ListChangeListener<Task>) change -> {
+            changes.add("change");
+            while (change.next()) {
+                assertTrue(change.wasRemoved());
+                changes.add(change.getFrom() + ":" + change.getRemovedSize());
+            }
+        });
+        
+        // Removes 1-2, 5 and 9 as three runs
+        assertTrue(list.removeIf(task -> List.of(1, 2, 5, 9).contains(tasks.indexOf(task))));
+        
+        assertEquals(List.of("change", "1:2", "3:1", "6:1"), changes);
+        assertEquals(List.of(tasks.get(0), tasks.get(3), tasks.get(4), tasks.get(6), tasks.get(7), tasks.get(8)),
+                     list);
+        assertFalse(list.removeIf(task -> false));
+        assertEquals(1, changes.stream().filter("change"::equals).count());
+    }
+    
+    @Test
+    void failingFilterLeavesTheListAlone() {
+        TaskList list = new TaskList();
+        list.setAll(List.of(new Task("a"), new Task("b")));
+        
+        assertThrows(IllegalStateException.class, () -> list.removeIf(task -> {
+            throw new IllegalStateException();
+        }));
+        assertEquals(2, list.size());
+    }
+    
+    @Test
+    void fireUpdatedRefiltersJustTheEditedRows() {
+        TaskList list = new TaskList();
+        Task pending = new Task("pending");
+        Task other = new Task("other");
+        list.setAll(List.of(pending, other));
+        FilteredList<Task> pendingOnly = new FilteredList<>(list, task -> !task.isCompleted());
+        List<String> changes = new ArrayList<>();
+        pendingOnly.addListener((ListChangeListener<Task>) change -> {
+            while (change.next()) {
+                changes.add(change.wasRemoved() ? "removed " + change.getFrom() : "other");
+            }
+        });
+        
+        pending.setCompleted(true);
+        list.fireUpdated(new int[] { 0 });
+        
+        assertEquals(List.of(other), pendingOnly);
+        assertEquals(List.of("removed 0"), changes);
+        list.fireUpdated(new int[0]);
+        assertEquals(1, changes.size());
+    }
+}
@@ -0,0 +1,90 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * TaskOrderingTest.java
+ * Checks that sparse display orders stay strictly increasing in list order.
+ */
+class TaskOrderingTest {
+    
+    @Test
+    void picksOrdersBetweenNeighbours() {
+        Task before = withOrder(1024);
+        Task after = withOrder(2048);
+        
+        assertEquals(TaskOrdering.ORDER_GAP, TaskOrdering.orderBetween(null, null));
+        assertEquals(1536, TaskOrdering.orderBetween(before, after));
+        assertEquals(0, TaskOrdering.orderBetween(null, before));
+        assertEquals(3072, TaskOrdering.orderBetween(after, null));
+        assertEquals(TaskOrdering.NO_GAP, TaskOrdering.orderBetween(withOrder(5), withOrder(6)));
+    }
+    
+    @Test
+    void endsRunOutOfRoomWithoutOverflowing() {
+        int top = TaskOrdering.orderBetween(null, withOrder(Integer.MIN_VALUE + 3));
+        assertEquals(Integer.MIN_VALUE + 2, top);
+        assertEquals(TaskOrdering.NO_GAP, TaskOrdering.orderBetween(null, withOrder(Integer.MIN_VALUE + 1)));
+        
+        int bottom = TaskOrdering.orderBetween(withOrder(Integer.MAX_VALUE - 2), null);
+        assertEquals(Integer.MAX_VALUE - 1, bottom);
+        assertEquals(TaskOrdering.NO_GAP, TaskOrdering.orderBetween(withOrder(Integer.MAX_VALUE - 1), null));
+    }
+    
+    @Test
+    void rebalanceSpreadsOrdersInListOrder() {
+        List<Task> tasks = List.of(withOrder(7), withOrder(8), withOrder(9));
+        
+        TaskOrdering.rebalance(tasks);
+        
+        assertEquals(List.of(1024, 2048, 3072), orders(tasks));
+    }
+    
+    @Test
+    void randomMovesKeepOrdersIncreasing() {
+        Random random = new Random(5);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Task task = new Task("Task " + i);
+            task.setDisplayOrder(TaskOrdering.nextOrder(tasks));
+            tasks.add(task);
+        }
+        int rebalances = 0;
+        for (int round = 0; round < 5000; round++) {
+            // Mostly move into the same spot, to use up the gaps
+            Task moved = tasks.remove(random.nextInt(tasks.size()));
+            int to = random.nextInt(4) == 0 ? random.nextInt(tasks.size() + 1) : 10;
+            tasks.add(to, moved);
+            int order = TaskOrdering.orderBetween(to > 0 ? tasks.get(to - 1) : null,
+                                                  to + 1 < tasks.size() ? tasks.get(to + 1) : null);
+            if (order == TaskOrdering.NO_GAP) {
+                TaskOrdering.rebalance(tasks);
+                rebalances++;
+            } else {
+                moved.setDisplayOrder(order);
+            }
+            List<Integer> orders = orders(tasks);
+            for (int i = 1; i < orders.size(); i++) {
+                assertTrue(orders.get(i - 1) < orders.get(i), "orders " + orders);
+            }
+        }
+        assertTrue(rebalances > 0 && rebalances < 5000 / 5, "rebalances " + rebalances);
+    }
+    
+    private static Task withOrder(int order) {
+        Task task = new Task("Task");
+        task.setDisplayOrder(order);
+        return task;
+    }
+    
+    private static List<Integer> orders(List<Task> tasks) {
+        List<Integer> orders = new ArrayList<>();
+        for (Task task : tasks) {
+            orders.add(task.getDisplayOrder());
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,91 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.Test;
+
+/**
+ * TaskRepositoryTest.java
+ * Checks that published snapshots match the live list at their version
+ * and are not affected by later edits.
+ */
+class TaskRepositoryTest {
+    
+    @Test
+    void snapshotsAreDetachedAndVersioned() {
+        TaskRepository repository = newRepository();
+        TaskList tasks = repository.getTasks();
+        tasks.addAll(FileHelperTest.tasks(3));
+        
+        TaskRepository.Snapshot first = repository.publishNow();
+        assertSame(first, repository.publishNow());
+        List<String> before = lines(first.getTasks());
+        
+        tasks.get(0).setDescription("Edited");
+        tasks.remove(2);
+        TaskRepository.Snapshot second = repository.publishNow();
+        
+        assertTrue(second.getVersion() > first.getVersion());
+        assertEquals(before, lines(first.getTasks()));
+        assertEquals(lines(tasks), lines(second.getTasks()));
+        
+        // Changing a snapshot's task changes nothing else
+        second.getTasks().get(1).setDescription("Not live");
+        assertEquals("Task 1", tasks.get(1).getDescription());
+        assertEquals(lines(tasks), lines(repository.publishNow().getTasks()));
+    }
+    
+    @Test
+    void randomEditsMatchTheLiveList() {
+        Random random = new Random(9);
+        TaskRepository repository = newRepository();
+        TaskList tasks = repository.getTasks();
+        List<TaskRepository.Snapshot> snapshots = new ArrayList<>();
+        List<List<String>> expected = new ArrayList<>();
+        for (int round = 0; round < 3000; round++) {
+            int action = random.nextInt(20);
+            if (action < 6 || tasks.isEmpty()) {
+                Task task = new Task("Task " + round);
+                tasks.add(random.nextInt(tasks.size() + 1), task);
+            } else if (action < 8) {
+                tasks.remove(random.nextInt(tasks.size()));
+            } else if (action < 18) {
+                Task task = tasks.get(random.nextInt(tasks.size()));
+                if (random.nextBoolean()) {
+                    task.setDescription("Edit " + round);
+                } else {
+                    task.setTag(random.nextBoolean() ? Task.TAG_WORK : "Custom " + random.nextInt(3));
+                }
+            } else {
+                snapshots.add(repository.publishNow());
+                expected.add(lines(tasks));
+            }
+        }
+        // Every snapshot still shows the tasks as they were when it was published
+        for (int i = 0; i < snapshots.size(); i++) {
+            assertEquals(expected.get(i), lines(snapshots.get(i).getTasks()), "snapshot " + i);
+        }
+    }
+    
+    private static TaskRepository newRepository() {
+        TaskRepository repository = new TaskRepository();
+        // What TaskEngine does: the repository hears about edits to the tasks in its list
+        repository.getTasks().addListener((ListChangeListener<Task>) change -> {
+            while (change.next()) {
+                change.getRemoved().forEach(task -> task.setListener(null));
+                change.getAddedSubList().forEach(task -> task.setListener(repository));
+            }
+        });
+        return repository;
+    }
+    
+    private static List<String> lines(List<Task> tasks) {
+        List<String> lines = new ArrayList<>();
+        for (Task task : tasks) {
+            lines.add(task.toFileString());
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,88 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * TaskStatisticsTest.java
+ * Checks the incrementally kept counts against a count of the tasks.
+ */
+class TaskStatisticsTest {
+    
+    @Test
+    void countsFollowAddsEditsAndRemoves() {
+        TaskStatistics statistics = new TaskStatistics();
+        LocalDateTime now = LocalDateTime.now();
+        Task essay = add(statistics, new Task("1", "Essay", now, false, null, Task.TAG_SCHOOL, now.minusDays(1), 1));
+        Task milk = add(statistics, new Task("2", "Milk", now, false, null, Task.TAG_SHOPPING, now.plusDays(1), 2));
+        add(statistics, new Task("3", "Done", now, true, now, Task.TAG_SCHOOL, now.minusDays(1), 3));
+        
+        assertEquals(3, statistics.getTotalCount());
+        assertEquals(1, statistics.getCompletedCount());
+        assertEquals(2, statistics.getPendingCount());
+        assertEquals(2, statistics.getTagCount(Task.TAG_SCHOOL));
+        assertEquals(1, statistics.getOverdueCount());
+        
+        // Completing an overdue task takes it off the overdue count
+        essay.setCompleted(true);
+        assertEquals(2, statistics.getCompletedCount());
+        assertEquals(0, statistics.getOverdueCount());
+        
+        // Moving a due date into the past after the horizon passed it
+        milk.setDueDate(now.minusHours(1));
+        milk.setTag(Task.TAG_WORK);
+        assertEquals(1, statistics.getOverdueCount());
+        assertEquals(0, statistics.getTagCount(Task.TAG_SHOPPING));
+        assertEquals(1, statistics.getTagCount(Task.TAG_WORK));
+        
+        statistics.taskRemoved(milk);
+        assertEquals(0, statistics.getOverdueCount());
+        assertEquals(2, statistics.getTotalCount());
+        assertEquals(0, statistics.getPendingCount());
+    }
+    
+    @Test
+    void randomEditsMatchACount() {
+        Random random = new Random(11);
+        TaskStatistics statistics = new TaskStatistics();
+        LocalDateTime now = LocalDateTime.now();
+        List<Task> tasks = new ArrayList<>();
+        for (int round = 0; round < 3000; round++) {
+            int action = random.nextInt(10);
+            if (action < 4 || tasks.isEmpty()) {
+                tasks.add(add(statistics, new Task("Task " + round)));
+            } else if (action < 5) {
+                statistics.taskRemoved(tasks.remove(random.nextInt(tasks.size())));
+            } else if (action < 8) {
+                Task task = tasks.get(random.nextInt(tasks.size()));
+                switch (random.nextInt(3)) {
+                    case 0:
+                        task.setCompleted(!task.isCompleted());
+                        break;
+                    case 1:
+                        task.setTag(Task.ALL_TAGS[random.nextInt(Task.ALL_TAGS.length)]);
+                        break;
+                    default:
+                        task.setDueDate(random.nextBoolean() ? null : now.plusHours(random.nextInt(96) - 48));
+                        break;
+                }
+            } else {
+                assertEquals(tasks.size(), statistics.getTotalCount());
+                assertEquals(tasks.stream().filter(Task::isCompleted).count(), statistics.getCompletedCount());
+                assertEquals(tasks.stream().filter(Task::isOverdue).count(), statistics.getOverdueCount());
+                String tag = Task.ALL_TAGS[random.nextInt(Task.ALL_TAGS.length)];
+                assertEquals(tasks.stream().filter(task -> task.getTag().equals(tag)).count(),
+                             statistics.getTagCount(tag));
+            }
+        }
+    }
+    
+    private static Task add(TaskStatistics statistics, Task task) {
+        statistics.taskAdded(task);
+        task.setListener(statistics);
+        return task;
+    }
+}